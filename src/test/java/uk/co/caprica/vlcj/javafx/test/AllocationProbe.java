@@ -0,0 +1,118 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the number of bytes allocated by the current thread, using the HotSpot {@link com.sun.management.ThreadMXBean}.
+ * <p>
+ * Reading the allocation counter may itself allocate a little, so that overhead is measured once up front and then
+ * subtracted from each measurement.
+ * <p>
+ * Not thread-safe, each probe must only be used by a single thread.
+ */
+final class AllocationProbe {
+
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    private final long threadId = Thread.currentThread().getId();
+
+    private final long overhead;
+
+    private long start;
+
+    private long total;
+
+    private long count;
+
+    private long max;
+
+    /**
+     * Create a probe for the current thread.
+     *
+     * @throws UnsupportedOperationException if the JVM can not measure thread allocation
+     */
+    AllocationProbe() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new UnsupportedOperationException("Thread allocation measurement is not supported by this JVM");
+        }
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        if (!threadBean.isThreadAllocatedMemoryEnabled()) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        long minimum = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long before = allocatedBytes();
+            minimum = Math.min(minimum, allocatedBytes() - before);
+        }
+        overhead = minimum;
+    }
+
+    /**
+     * Begin a measurement.
+     */
+    void begin() {
+        start = allocatedBytes();
+    }
+
+    /**
+     * End a measurement, recording the bytes allocated since {@link #begin()}.
+     *
+     * @return number of bytes allocated
+     */
+    long end() {
+        long allocated = Math.max(0, allocatedBytes() - start - overhead);
+        total += allocated;
+        count++;
+        if (allocated > max) {
+            max = allocated;
+        }
+        return allocated;
+    }
+
+    /**
+     * Get the mean number of bytes allocated per measurement.
+     *
+     * @return mean bytes allocated
+     */
+    double mean() {
+        return count > 0 ? (double) total / count : 0;
+    }
+
+    long max() {
+        return max;
+    }
+
+    long count() {
+        return count;
+    }
+
+    void reset() {
+        total = 0;
+        count = 0;
+        max = 0;
+    }
+
+    private long allocatedBytes() {
+        return threadBean.getThreadAllocatedBytes(threadId);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A video mosaic rendered from a single {@link FrameAtlas}, so there is only one texture upload and one drawImage per
+ * pulse however many players there are.
+ * <p>
+ * Each player's video is scaled by LibVLC to the size of an atlas cell, and the mosaic is scaled to fit the window.
+ * <p>
+ * Ideally LibVLC would decode each player's video straight into its cell of the atlas, with a buffer pitch equal to the
+ * atlas stride - but vlcj allocates the native video buffers itself, so each frame is copied from the player's
+ * {@link SwapChain} into its cell on the JavaFX application thread instead.
+ * <p>
+ * Command-line arguments:
+ * <pre>
+ *   [cell-size] mrl...
+ * </pre>
+ * e.g. "480x270 rtsp://camera1 rtsp://camera2 ...", the default cell size is 640x360.
+ */
+public class AtlasVideoWallTest extends Application {
+
+    private static final int MAX_TILES = 16;
+
+    private final List<EmbeddedMediaPlayer> mediaPlayers = new ArrayList<>();
+
+    private final List<VideoFrames> tiles = new ArrayList<>();
+
+    private final FrameStats stats = new FrameStats();
+
+    private MediaPlayerFactory mediaPlayerFactory;
+
+    private AnimationTimer timer;
+
+    @Override
+    public void start(Stage stage) {
+        List<String> params = new ArrayList<>(getParameters().getRaw());
+        int[] cellSize = {640, 360};
+        if (!params.isEmpty() && params.get(0).matches("\\d+x\\d+")) {
+            cellSize = Benchmarks.parseResolution(params.remove(0));
+        }
+        if (params.isEmpty()) {
+            System.err.println("Specify one or more MRLs to play");
+            Platform.exit();
+            return;
+        }
+        List<String> mrls = params.size() > MAX_TILES ? params.subList(0, MAX_TILES) : params;
+
+        int columns = (int) Math.ceil(Math.sqrt(mrls.size()));
+        int rows = (mrls.size() + columns - 1) / columns;
+
+        FrameAtlas atlas = new FrameAtlas(columns, rows, cellSize[0], cellSize[1], PixelFormat.getByteBgraPreInstance());
+        ByteBuffer[] frames = new ByteBuffer[mrls.size()];
+
+        mediaPlayerFactory = new MediaPlayerFactory();
+        for (int i = 0; i < mrls.size(); i++) {
+            VideoFrames videoFrames = new VideoFrames(cellSize[0], cellSize[1]);
+            videoFrames.stats().register(getClass().getSimpleName() + "-" + i);
+            EmbeddedMediaPlayer mediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
+            mediaPlayer.videoSurface().set(mediaPlayerFactory.videoSurfaces().newVideoSurface(videoFrames.bufferFormatCallback(), videoFrames.renderCallback(), true));
+            mediaPlayer.controls().setRepeat(true);
+            mediaPlayer.audio().setMute(i > 0);
+            tiles.add(videoFrames);
+            mediaPlayers.add(mediaPlayer);
+        }
+
+        Canvas canvas = new Canvas();
+        Pane canvasPane = new Pane(canvas);
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+
+        VideoRenderer renderer = new VideoRenderer(canvas);
+        renderer.setShowStats(false);
+        renderer.setShowAnimation(false);
+
+        // The atlas statistics count atlas updates as presented frames, the statistics of each player are registered
+        // separately
+        stats.register(getClass().getSimpleName());
+
+        stage.setTitle("vlcj JavaFX atlas video wall");
+        stage.setScene(new Scene(canvasPane, 1280, 720, Color.BLACK));
+        stage.setOnCloseRequest(windowEvent -> Platform.exit());
+        stage.show();
+
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                long pulse = System.nanoTime();
+                for (int i = 0; i < frames.length; i++) {
+                    VideoFrames videoFrames = tiles.get(i);
+                    if (videoFrames.frameReady()) {
+                        videoFrames.swapFrame(pulse);
+                        atlas.tileChanged(i);
+                    }
+                    frames[i] = videoFrames.frontBuffer();
+                }
+                WritableImage img = atlas.present(frames);
+                if (atlas.uploaded() > 0) {
+                    stats.framePresented(atlas.uploaded());
+                } else if (img != null) {
+                    stats.frameRepeated();
+                }
+                renderer.renderIfNeeded(img, stats);
+            }
+        };
+        timer.start();
+
+        for (int i = 0; i < mrls.size(); i++) {
+            mediaPlayers.get(i).media().play(mrls.get(i));
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+        for (EmbeddedMediaPlayer mediaPlayer : mediaPlayers) {
+            mediaPlayer.controls().stop();
+            mediaPlayer.release();
+        }
+        if (mediaPlayerFactory != null) {
+            mediaPlayerFactory.release();
+        }
+    }
+
+    /**
+     * Application entry point.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        Application.launch(args);
+    }
+}
+
+// Launch via this class to avoid module system headaches.
+class AtlasVideoWallTestLauncher {public static void main(String[] args) {AtlasVideoWallTest.main(args);}}
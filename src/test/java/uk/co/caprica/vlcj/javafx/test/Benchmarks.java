@@ -0,0 +1,78 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Helpers shared by the JMH benchmarks.
+ */
+final class Benchmarks {
+
+    private static boolean started;
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Start the JavaFX toolkit, if it is not already running in this JVM.
+     * <p>
+     * On a machine without a display, run with the Monocle headless platform.
+     */
+    static synchronized void startToolkit() {
+        if (!started) {
+            Platform.setImplicitExit(false);
+            Platform.startup(() -> {});
+            started = true;
+        }
+    }
+
+    /**
+     * Run a task on the JavaFX application thread and wait for it to complete.
+     *
+     * @param task task to run
+     */
+    static void runAndWait(Runnable task) {
+        FutureTask<Void> future = new FutureTask<>(task, null);
+        Platform.runLater(future);
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Parse a resolution specified as "widthxheight".
+     *
+     * @param resolution resolution
+     * @return width and height
+     */
+    static int[] parseResolution(String resolution) {
+        String[] parts = resolution.split("x");
+        return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.scene.canvas.Canvas;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Measures the size of the command buffer of a Canvas.
+ * <p>
+ * Drawing to a Canvas does not draw anything straight away, each command is appended to a buffer that is only drained
+ * when the canvas is next synchronised with the render thread, during a pulse. There is no public API to inspect that
+ * buffer, so it is read via the (private) JavaFX implementation - if that is not accessible, e.g. when JavaFX is on the
+ * module path, the size is simply reported as unknown.
+ * <p>
+ * The pending buffer is read straight from the canvas field, it is not acquired via the canvas (that would create a
+ * buffer if there were none, and mark the canvas as needing to be synchronised). Measuring has no side effects on the
+ * canvas, and does not allocate.
+ */
+final class CanvasCommandBuffer {
+
+    private static final MethodHandle CURRENT_BUFFER;
+
+    private static final MethodHandle BUFFER_SIZE;
+
+    static {
+        MethodHandle currentBuffer = null;
+        MethodHandle bufferSize = null;
+        try {
+            Field current = Canvas.class.getDeclaredField("current");
+            current.setAccessible(true);
+            Method writeValuePosition = current.getType().getMethod("writeValuePosition");
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            currentBuffer = lookup.unreflectGetter(current).asType(MethodType.methodType(Object.class, Canvas.class));
+            bufferSize = lookup.unreflect(writeValuePosition).asType(MethodType.methodType(int.class, Object.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            System.err.printf("Canvas command buffer size is not available: %s%n", e);
+        }
+        CURRENT_BUFFER = currentBuffer;
+        BUFFER_SIZE = bufferSize;
+    }
+
+    private CanvasCommandBuffer() {
+    }
+
+    /**
+     * Get the number of bytes of drawing commands queued for a canvas, but not yet taken by the render thread.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     *
+     * @param canvas canvas
+     * @return number of bytes, 0 if nothing has been drawn since the last synchronisation, or -1 if not known
+     */
+    static int pendingBytes(Canvas canvas) {
+        if (BUFFER_SIZE == null) {
+            return -1;
+        }
+        try {
+            Object buffer = (Object) CURRENT_BUFFER.invokeExact(canvas);
+            return buffer != null ? (int) BUFFER_SIZE.invokeExact(buffer) : 0;
+        } catch (Throwable t) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * A view that draws the video frame, and the overlays if they are enabled, to a Canvas.
+ * <p>
+ * This is the original immediate-mode approach, see {@link VideoRenderer}.
+ * <p>
+ * Canvas drawing commands are queued until the canvas is next rendered, so nothing is drawn at all while the canvas can
+ * not be rendered (it is hidden, or its window is minimised or not showing) - the commands would only be queued up for
+ * nothing. Instead the canvas is redrawn in full once it can be seen again.
+ */
+final class CanvasVideoView implements VideoView {
+
+    private final Canvas canvas = new Canvas();
+
+    private final Pane canvasPane = new Pane(canvas);
+
+    private final VideoRenderer renderer;
+
+    CanvasVideoView() {
+        this(new OverlayAnimation());
+    }
+
+    /**
+     * Create a view.
+     *
+     * @param animation animation for the animation overlay, may be shared with other views
+     */
+    CanvasVideoView(OverlayAnimation animation) {
+        canvasPane.setStyle("-fx-background-color: rgb(0, 0, 0);");
+
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+
+        renderer = new VideoRenderer(canvas, animation);
+    }
+
+    @Override
+    public Region node() {
+        return canvasPane;
+    }
+
+    @Override
+    public boolean renderIfNeeded(Image img, FrameStats stats) {
+        if (!isShowing()) {
+            renderer.invalidate();
+            stats.renderSkipped();
+            return false;
+        }
+        boolean rendered = renderer.renderIfNeeded(img, stats);
+        if (rendered) {
+            stats.canvasCommandBytes(CanvasCommandBuffer.pendingBytes(canvas));
+        }
+        return rendered;
+    }
+
+    /**
+     * Will the canvas actually be rendered on the next pulse?
+     *
+     * @return <code>true</code> if the canvas is visible in a showing window
+     */
+    private boolean isShowing() {
+        for (Node node = canvas; node != null; node = node.getParent()) {
+            if (!node.isVisible()) {
+                return false;
+            }
+        }
+        Scene scene = canvas.getScene();
+        Window window = scene != null ? scene.getWindow() : null;
+        return window != null && window.isShowing() && !(window instanceof Stage && ((Stage) window).isIconified());
+    }
+
+    @Override
+    public void invalidate() {
+        renderer.invalidate();
+    }
+
+    @Override
+    public void setShowStats(boolean show) {
+        renderer.setShowStats(show);
+    }
+
+    @Override
+    public void setShowAnimation(boolean show) {
+        renderer.setShowAnimation(show);
+    }
+
+    @Override
+    public void setSuspended(boolean suspended) {
+        renderer.setSuspended(suspended);
+    }
+}
@@ -0,0 +1,453 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A pool of warm media players for instant channel switching, e.g. for IPTV.
+ * <p>
+ * The pool has up to three {@link PlayerSlot}s, sharing one media player factory, each with its own callback video
+ * surface - one for the channel being watched, and the others keep the adjacent channels (next and previous) playing
+ * in the background, muted, and with their video frames ignored rather than copied. Switching to an adjacent channel
+ * then only needs its slot brought to the foreground, and the next frame it delivers is presented - there is no media
+ * to open, no stream to buffer and no video output to create. Switching to any other channel is a cold start in a spare
+ * slot.
+ * <p>
+ * After every switch the adjacent channels of the new channel are warmed up, reusing the slots no longer needed.
+ * <p>
+ * The number of slots is bounded by a memory budget for the video buffers, assuming full HD frames until the actual
+ * frame sizes are known - if the actual frames turn out to be bigger, fewer channels are kept warm (the previous
+ * channel is dropped first).
+ * <p>
+ * The time to the first frame after each switch, from the switch being requested to the first frame being delivered by
+ * the new channel, is measured separately for warm and cold switches. The statistics can be registered with the
+ * platform MBean server, to monitor them via JMX.
+ * <p>
+ * All of the media player calls are made by a single command thread, never on the JavaFX application thread - rapid
+ * switching is coalesced, so only the last channel selected is actually switched to.
+ */
+final class ChannelPool implements ChannelPoolMXBean {
+
+    private static final int MAX_SLOTS = 3;
+
+    /**
+     * Assumed size of a video frame until the actual size is known - full HD, 32 bits per pixel.
+     */
+    private static final long ESTIMATED_FRAME_BYTES = 1920 * 1080 * 4;
+
+    /**
+     * Number of frame-sized buffers each slot holds, the swap chain plus the native buffer.
+     */
+    private static final int BUFFERS_PER_SLOT = SwapChain.BUFFER_COUNT + 1;
+
+    private final List<String> channels;
+
+    private final long memoryBudget;
+
+    private final PlayerSlot[] slots;
+
+    /**
+     * Channel held by each slot, or -1 for none - used only by the command thread.
+     */
+    private final int[] slotChannels;
+
+    private final MediaPlayerCommands commands;
+
+    /**
+     * Time a warm switch to each slot was requested, until its first frame is delivered, or zero.
+     */
+    private final AtomicLongArray warmSwitchRequested;
+
+    /**
+     * Time a cold switch to each slot was requested, until its first frame is delivered, or zero.
+     */
+    private final AtomicLongArray coldSwitchRequested;
+
+    private final AtomicLong switches = new AtomicLong();
+
+    private final AtomicLong warmSwitches = new AtomicLong();
+
+    /**
+     * Time to first frame for each kind of switch, guarded by this.
+     */
+    private final LatencyHistogram warmTimeToFirstFrame = new LatencyHistogram();
+
+    private final LatencyHistogram coldTimeToFirstFrame = new LatencyHistogram();
+
+    /**
+     * Index of the slot being presented.
+     */
+    private volatile int active;
+
+    /**
+     * Channel being watched, used only by the command thread.
+     */
+    private int channel = -1;
+
+    /**
+     * The most recently selected channel, used only by the JavaFX application thread.
+     */
+    private int selected;
+
+    private volatile int warmChannels;
+
+    /**
+     * Create a channel pool.
+     *
+     * @param mediaPlayerFactory factory to create the media players
+     * @param channels MRLs of the channels, in order
+     * @param memoryBudget maximum size of the video buffers of all of the slots, in bytes
+     * @param name name to distinguish the statistics of this pool from those of any other
+     */
+    ChannelPool(MediaPlayerFactory mediaPlayerFactory, List<String> channels, long memoryBudget, String name) {
+        this.channels = new ArrayList<>(channels);
+        this.memoryBudget = memoryBudget;
+        int size = (int) Math.max(1, Math.min(MAX_SLOTS, memoryBudget / (ESTIMATED_FRAME_BYTES * BUFFERS_PER_SLOT)));
+        this.slots = new PlayerSlot[size];
+        this.slotChannels = new int[size];
+        this.warmSwitchRequested = new AtomicLongArray(size);
+        this.coldSwitchRequested = new AtomicLongArray(size);
+        this.commands = new MediaPlayerCommands(name + "-commands");
+        commands.register(name);
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            slots[i] = new PlayerSlot(mediaPlayerFactory, name + "-" + i);
+            slots[i].videoFrames().setOnFrameDelivered(() -> frameDelivered(index));
+            slotChannels[i] = -1;
+        }
+    }
+
+    /**
+     * Register these statistics with the platform MBean server.
+     *
+     * @param name name to distinguish these statistics from those of any other pool
+     */
+    void register(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("uk.co.caprica.vlcj.javafx:type=ChannelPool,name=" + name));
+        } catch (JMException e) {
+            e.printStackTrace(System.err);
+        }
+    }
+
+    /**
+     * Switch to a channel.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     *
+     * @param channel index of the channel
+     */
+    void select(int channel) {
+        long requested = System.nanoTime();
+        selected = channel;
+        commands.submitLatest("select", () -> switchTo(channel, requested));
+    }
+
+    /**
+     * Switch to the next channel.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     */
+    void channelUp() {
+        select((selected + 1) % channels.size());
+    }
+
+    /**
+     * Switch to the previous channel.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     */
+    void channelDown() {
+        select((selected + channels.size() - 1) % channels.size());
+    }
+
+    /**
+     * Get the most recently selected channel, it may not have been switched to yet.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     *
+     * @return index of the channel
+     */
+    int selectedChannel() {
+        return selected;
+    }
+
+    /**
+     * Get the slot that should currently be presented.
+     * <p>
+     * This changes at each switch, the caller should check it on every pulse.
+     *
+     * @return active slot
+     */
+    PlayerSlot activeSlot() {
+        return slots[active];
+    }
+
+    /**
+     * Stop playing, and release the media players.
+     */
+    void release() {
+        commands.release();
+        for (PlayerSlot slot : slots) {
+            slot.release();
+        }
+    }
+
+    private void switchTo(int channel, long requested) {
+        if (channel == this.channel) {
+            return;
+        }
+        int slot = slotFor(channel);
+        boolean warm = slot >= 0;
+        if (!warm) {
+            slot = spareSlot(channel);
+        }
+        PlayerSlot target = slots[slot];
+        target.setBackground(false);
+        if (warm) {
+            warmSwitchRequested.set(slot, requested);
+            warmSwitches.incrementAndGet();
+        } else {
+            if (slotChannels[slot] >= 0) {
+                // Make sure no frame from the channel this slot held is mistaken for the first frame of the new one, or
+                // is presented until then
+                target.stop();
+                target.videoFrames().clear();
+            }
+            coldSwitchRequested.set(slot, requested);
+            slotChannels[slot] = channel;
+            if (!target.mediaPlayer().media().play(channels.get(channel))) {
+                System.err.printf("Failed to play channel %d: %s%n", channel + 1, channels.get(channel));
+            }
+        }
+        switches.incrementAndGet();
+        int previous = active;
+        active = slot;
+        this.channel = channel;
+        if (previous != slot) {
+            slots[previous].setBackground(true);
+        }
+        warmNeighbours();
+    }
+
+    /**
+     * Keep the channels adjacent to the current channel playing in the background, as far as the slots and the memory
+     * budget allow, and stop any other channel.
+     */
+    private void warmNeighbours() {
+        List<Integer> wanted = new ArrayList<>(2);
+        int count = channels.size();
+        int next = (channel + 1) % count;
+        int previous = (channel + count - 1) % count;
+        if (next != channel) {
+            wanted.add(next);
+        }
+        if (previous != channel && previous != next) {
+            wanted.add(previous);
+        }
+        int allowed = allowedWarmChannels();
+        while (wanted.size() > allowed) {
+            wanted.remove(wanted.size() - 1);
+        }
+        for (int i = 0; i < slots.length; i++) {
+            if (i != active && slotChannels[i] >= 0 && !wanted.contains(slotChannels[i])) {
+                slots[i].stop();
+                slots[i].videoFrames().clear();
+                slotChannels[i] = -1;
+            }
+        }
+        int warm = 0;
+        for (int neighbour : wanted) {
+            if (slotFor(neighbour) < 0) {
+                int slot = freeSlot();
+                if (slot < 0) {
+                    break;
+                }
+                slots[slot].setBackground(true);
+                slotChannels[slot] = neighbour;
+                if (!slots[slot].mediaPlayer().media().play(channels.get(neighbour))) {
+                    System.err.printf("Failed to warm channel %d: %s%n", neighbour + 1, channels.get(neighbour));
+                    slotChannels[slot] = -1;
+                    continue;
+                }
+            }
+            warm++;
+        }
+        warmChannels = warm;
+    }
+
+    /**
+     * Get the number of channels that can be kept warm within the memory budget, given the largest frames seen so far.
+     *
+     * @return number of channels
+     */
+    private int allowedWarmChannels() {
+        long slotBytes = ESTIMATED_FRAME_BYTES * BUFFERS_PER_SLOT;
+        for (PlayerSlot slot : slots) {
+            slotBytes = Math.max(slotBytes, slot.videoFrames().frameSize() * BUFFERS_PER_SLOT);
+        }
+        return (int) Math.max(0, Math.min(slots.length - 1, memoryBudget / slotBytes - 1));
+    }
+
+    private int slotFor(int channel) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slotChannels[i] == channel) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlot() {
+        for (int i = 0; i < slots.length; i++) {
+            if (i != active && slotChannels[i] < 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Choose a slot to cold start a channel in - a free slot if there is one, otherwise a slot holding a channel that
+     * is not adjacent to the new channel, otherwise the active slot.
+     *
+     * @param channel channel to start
+     * @return slot index
+     */
+    private int spareSlot(int channel) {
+        int free = freeSlot();
+        if (free >= 0) {
+            return free;
+        }
+        int count = channels.size();
+        for (int i = 0; i < slots.length; i++) {
+            int held = slotChannels[i];
+            if (i != active && held != (channel + 1) % count && held != (channel + count - 1) % count) {
+                return i;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * A frame was delivered by a slot, invoked on that slot's native video thread.
+     *
+     * @param slot slot index
+     */
+    private void frameDelivered(int slot) {
+        long warm = warmSwitchRequested.get(slot);
+        long cold = coldSwitchRequested.get(slot);
+        if (warm == 0 && cold == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (warm != 0 && warmSwitchRequested.compareAndSet(slot, warm, 0)) {
+            synchronized (this) {
+                warmTimeToFirstFrame.record(now - warm);
+            }
+        }
+        if (cold != 0 && coldSwitchRequested.compareAndSet(slot, cold, 0)) {
+            synchronized (this) {
+                coldTimeToFirstFrame.record(now - cold);
+            }
+        }
+    }
+
+    @Override
+    public int getPoolSize() {
+        return slots.length;
+    }
+
+    @Override
+    public int getWarmChannels() {
+        return warmChannels;
+    }
+
+    @Override
+    public long getPoolBytes() {
+        long bytes = 0;
+        for (PlayerSlot slot : slots) {
+            bytes += slot.videoFrames().frameSize() * BUFFERS_PER_SLOT;
+        }
+        return bytes;
+    }
+
+    @Override
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    @Override
+    public long getSwitches() {
+        return switches.get();
+    }
+
+    @Override
+    public long getWarmSwitches() {
+        return warmSwitches.get();
+    }
+
+    @Override
+    public synchronized long getWarmTimeToFirstFrameP50() {
+        return warmTimeToFirstFrame.percentile(50);
+    }
+
+    @Override
+    public synchronized long getWarmTimeToFirstFrameP99() {
+        return warmTimeToFirstFrame.percentile(99);
+    }
+
+    @Override
+    public synchronized long getWarmTimeToFirstFrameMax() {
+        return warmTimeToFirstFrame.max();
+    }
+
+    @Override
+    public synchronized long getColdTimeToFirstFrameP50() {
+        return coldTimeToFirstFrame.percentile(50);
+    }
+
+    @Override
+    public synchronized long getColdTimeToFirstFrameP99() {
+        return coldTimeToFirstFrame.percentile(99);
+    }
+
+    @Override
+    public synchronized long getColdTimeToFirstFrameMax() {
+        return coldTimeToFirstFrame.max();
+    }
+
+    @Override
+    public synchronized void reset() {
+        switches.set(0);
+        warmSwitches.set(0);
+        warmTimeToFirstFrame.reset();
+        coldTimeToFirstFrame.reset();
+    }
+}
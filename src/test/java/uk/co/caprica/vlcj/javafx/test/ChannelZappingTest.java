@@ -0,0 +1,132 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+
+import java.util.List;
+
+/**
+ * Channel zapping, e.g. for IPTV, with the adjacent channels kept warm in a {@link ChannelPool}.
+ * <p>
+ * Command-line arguments:
+ * <pre>
+ *   [memory-budget] channel-mrl...
+ * </pre>
+ * The optional memory budget for the video buffers of the pool is in megabytes, the default is enough for three full
+ * HD channels - e.g. "128 udp://@239.0.0.1:1234 udp://@239.0.0.2:1234 ...". Press the up and down arrow keys (or page
+ * up and page down) to switch channel.
+ * <p>
+ * The time to the first frame after each switch is in the "ChannelPool" MBean.
+ */
+public class ChannelZappingTest extends Application {
+
+    private static final long DEFAULT_MEMORY_BUDGET = 3L * 1920 * 1080 * 4 * (SwapChain.BUFFER_COUNT + 1);
+
+    private MediaPlayerFactory mediaPlayerFactory;
+
+    private ChannelPool pool;
+
+    private AnimationTimer timer;
+
+    @Override
+    public void start(Stage stage) {
+        List<String> params = getParameters().getRaw();
+        long memoryBudget = DEFAULT_MEMORY_BUDGET;
+        if (!params.isEmpty() && params.get(0).matches("\\d+")) {
+            memoryBudget = Long.parseLong(params.get(0)) * 1024 * 1024;
+            params = params.subList(1, params.size());
+        }
+        if (params.isEmpty()) {
+            System.err.println("Specify one or more channel MRLs to play");
+            Platform.exit();
+            return;
+        }
+        List<String> channels = params;
+
+        mediaPlayerFactory = new MediaPlayerFactory();
+
+        pool = new ChannelPool(mediaPlayerFactory, channels, memoryBudget, getClass().getSimpleName());
+        pool.register(getClass().getSimpleName());
+
+        System.out.printf("Channels: %d, pool size: %d, memory budget: %d MB%n", channels.size(), pool.getPoolSize(), memoryBudget / (1024 * 1024));
+
+        VideoView videoView = RenderBackend.CANVAS.createView();
+        videoView.setShowAnimation(false);
+
+        Scene scene = new Scene(videoView.node(), 1280, 720, Color.BLACK);
+        scene.setOnKeyPressed(keyEvent -> {
+            switch (keyEvent.getCode()) {
+                case UP:
+                case PAGE_UP:
+                    pool.channelUp();
+                    break;
+                case DOWN:
+                case PAGE_DOWN:
+                    pool.channelDown();
+                    break;
+                default:
+                    return;
+            }
+            stage.setTitle(String.format("vlcj JavaFX channel zapping - channel %d/%d", pool.selectedChannel() + 1, channels.size()));
+        });
+
+        stage.setTitle(String.format("vlcj JavaFX channel zapping - channel 1/%d", channels.size()));
+        stage.setScene(scene);
+        stage.setOnCloseRequest(windowEvent -> Platform.exit());
+        stage.show();
+
+        timer = new SlotPresenter(videoView, pool::activeSlot);
+        timer.start();
+
+        pool.select(0);
+    }
+
+    @Override
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+        if (pool != null) {
+            pool.release();
+        }
+        if (mediaPlayerFactory != null) {
+            mediaPlayerFactory.release();
+        }
+    }
+
+    /**
+     * Application entry point.
+     *
+     * @param args optional memory budget, in megabytes, followed by the channel MRLs
+     */
+    public static void main(String[] args) {
+        Application.launch(args);
+    }
+}
+
+// Launch via this class to avoid module system headaches.
+class ChannelZappingTestLauncher {public static void main(String[] args) {ChannelZappingTest.main(args);}}
@@ -20,6 +20,7 @@
 package uk.co.caprica.vlcj.javafx.test;
 
 import javafx.application.Platform;
+import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -27,15 +28,15 @@ import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.TilePane;
 import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
 import uk.co.caprica.vlcj.player.base.MediaPlayer;
 import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
 
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -49,6 +50,8 @@ public class ControlsPane extends VBox {
 
     private final MediaPlayer mediaPlayer;
 
+    private final MediaPlayerCommands commands;
+
     private final Label currentTimeLabel;
     private final Slider timelineSlider;
     private final Label durationLabel;
@@ -59,10 +62,59 @@ public class ControlsPane extends VBox {
 
     private final AtomicBoolean tracking = new AtomicBoolean();
 
-    private Timer clockTimer;
+    /**
+     * Thumbnails for the hover preview, may be <code>null</code>.
+     */
+    private final ThumbnailCache thumbnails;
+
+    /**
+     * Coalesces seeks from the timeline, may be <code>null</code> to seek directly.
+     */
+    private final Scrubber scrubber;
+
+    private Popup thumbnailPopup;
+
+    private Label thumbnailTimeLabel;
+
+    private ImageView thumbnailView;
+
+    /**
+     * Media time under the mouse pointer, while the preview is showing.
+     */
+    private long previewTime = -1;
+
+    private long length;
+
+    /**
+     * Time shown by the clock label, in whole seconds - only updated by the native event thread.
+     */
+    private long clockSeconds = -1;
+
+    /**
+     * Latest media time for the clock label, in milliseconds.
+     */
+    private volatile long clockTime;
+
+    /**
+     * Whether or not a clock label update is already waiting to run on the JavaFX application thread.
+     */
+    private final AtomicBoolean clockUpdatePending = new AtomicBoolean();
+
+    private final Runnable updateClock = this::updateClock;
 
-    public ControlsPane(MediaPlayer mediaPlayer) {
+    /**
+     * Create the controls, with a thumbnail preview when hovering over the timeline and coalesced seeks.
+     *
+     * @param mediaPlayer media player
+     * @param commands command queue for the media player, native calls are never made directly
+     * @param thumbnails thumbnails of the media, or <code>null</code> for no preview
+     * @param scrubber seek coalescing for the timeline, or <code>null</code> to send every seek
+     */
+    ControlsPane(MediaPlayer mediaPlayer, MediaPlayerCommands commands, ThumbnailCache thumbnails, Scrubber scrubber) {
         this.mediaPlayer = mediaPlayer;
+        this.commands = commands;
+        this.thumbnails = thumbnails;
+        this.scrubber = scrubber;
 
         currentTimeLabel = new Label(Time.formatTime(0L));
 
@@ -92,34 +144,14 @@ public class ControlsPane extends VBox {
 
         buttonsPane.getChildren().addAll(playButton, pauseButton, stopButton);
 
-        playButton.setOnAction(actionEvent -> mediaPlayer.controls().play());
-        pauseButton.setOnAction(actionEvent -> mediaPlayer.controls().pause());
-        stopButton.setOnAction(actionEvent -> mediaPlayer.controls().stop());
+        playButton.setOnAction(actionEvent -> commands.submit("play", () -> mediaPlayer.controls().play()));
+        pauseButton.setOnAction(actionEvent -> commands.submit("pause", () -> mediaPlayer.controls().pause()));
+        stopButton.setOnAction(actionEvent -> commands.submit("stop", () -> mediaPlayer.controls().stop()));
 
         mediaPlayer.events().addMediaPlayerEventListener(new MediaPlayerEventAdapter() {
             @Override
-            public void playing(MediaPlayer mediaPlayer) {
-                startTimer();
-            }
-
-            @Override
-            public void paused(MediaPlayer mediaPlayer) {
-                stopTimer();
-            }
-
-            @Override
-            public void stopped(MediaPlayer mediaPlayer) {
-                stopTimer();
-            }
-
-            @Override
-            public void finished(MediaPlayer mediaPlayer) {
-                stopTimer();
-            }
-
-            @Override
-            public void error(MediaPlayer mediaPlayer) {
-                stopTimer();
+            public void timeChanged(MediaPlayer mediaPlayer, long newTime) {
+                clockTimeChanged(newTime);
             }
 
             @Override
@@ -137,6 +169,60 @@ public class ControlsPane extends VBox {
         timelineSlider.setOnMouseReleased(mouseEvent -> endTracking());
 
         timelineSlider.valueProperty().addListener((obs, oldValue, newValue) -> updateMediaPlayerPosition(newValue.floatValue() / 100));
+
+        if (thumbnails != null) {
+            createThumbnailPopup();
+        }
+    }
+
+    private void createThumbnailPopup() {
+        thumbnailTimeLabel = new Label();
+        thumbnailView = new ImageView(thumbnails.image());
+        VBox thumbnailBox = new VBox(thumbnailView, thumbnailTimeLabel);
+        thumbnailBox.setAlignment(Pos.CENTER);
+        thumbnailBox.setStyle(COMPONENT_STYLE);
+
+        thumbnailPopup = new Popup();
+        thumbnailPopup.getContent().add(thumbnailBox);
+
+        timelineSlider.setOnMouseMoved(this::showThumbnail);
+        timelineSlider.setOnMouseDragged(this::showThumbnail);
+        timelineSlider.setOnMouseExited(mouseEvent -> hideThumbnail());
+
+        // Thumbnails arrive some time after they are asked for, if the mouse is still nearby it may be the one wanted
+        thumbnails.setOnThumbnail(() -> {
+            if (previewTime >= 0) {
+                thumbnailView.setVisible(thumbnails.select(previewTime));
+            }
+        });
+    }
+
+    private void showThumbnail(MouseEvent mouseEvent) {
+        if (length <= 0) {
+            return;
+        }
+        // Map the pointer to the slider track, allowing for the padding
+        Insets padding = timelineSlider.getPadding();
+        double trackWidth = timelineSlider.getWidth() - padding.getLeft() - padding.getRight();
+        double fraction = Math.min(Math.max((mouseEvent.getX() - padding.getLeft()) / trackWidth, 0), 1);
+        previewTime = (long) (fraction * length);
+        // The image still shows the last thumbnail selected, it must not be shown for a time it does not belong to
+        thumbnailView.setVisible(thumbnails.select(previewTime));
+        thumbnailTimeLabel.setText(Time.formatTime(previewTime));
+        Bounds bounds = timelineSlider.localToScreen(timelineSlider.getBoundsInLocal());
+        double x = mouseEvent.getScreenX() - ThumbnailCache.THUMBNAIL_WIDTH / 2.0;
+        double y = bounds.getMinY() - ThumbnailCache.THUMBNAIL_HEIGHT - 48;
+        if (thumbnailPopup.isShowing()) {
+            thumbnailPopup.setX(x);
+            thumbnailPopup.setY(y);
+        } else {
+            thumbnailPopup.show(timelineSlider, x, y);
+        }
+    }
+
+    private void hideThumbnail() {
+        previewTime = -1;
+        thumbnailPopup.hide();
     }
 
     private Button createButton(String name, String icon) {
@@ -149,27 +235,42 @@ public class ControlsPane extends VBox {
         return button;
     }
 
-    private void startTimer() {
-        clockTimer = new Timer();
-        clockTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(() -> currentTimeLabel.setText(Time.formatTime(mediaPlayer.status().time())));
+    /**
+     * Update the clock label when the media time changes.
+     * <p>
+     * LibVLC reports the time many times a second, but the label only shows whole seconds, so the label is only
+     * updated when the second changes - and never more than one update is waiting on the JavaFX application thread.
+     *
+     * @param newTime media time, in milliseconds
+     */
+    private void clockTimeChanged(long newTime) {
+        long seconds = newTime / 1000;
+        if (seconds != clockSeconds) {
+            clockSeconds = seconds;
+            clockTime = newTime;
+            if (clockUpdatePending.compareAndSet(false, true)) {
+                Platform.runLater(updateClock);
             }
-        }, 0, 1000);
+        }
     }
 
-    private void stopTimer() {
-        clockTimer.cancel();
+    private void updateClock() {
+        clockUpdatePending.set(false);
+        currentTimeLabel.setText(Time.formatTime(clockTime));
     }
 
     private void updateDuration(long newValue) {
+        length = newValue;
         durationLabel.setText(Time.formatTime(newValue));
     }
 
     private synchronized void updateMediaPlayerPosition(float newValue) {
         if (tracking.get()) {
-            mediaPlayer.controls().setPosition(newValue);
+            if (scrubber != null) {
+                scrubber.seek(newValue);
+            } else {
+                commands.submitLatest("setPosition", () -> mediaPlayer.controls().setPosition(newValue));
+            }
         }
     }
 
@@ -180,7 +281,12 @@ public class ControlsPane extends VBox {
     private synchronized void endTracking() {
         tracking.set(false);
         // This deals with the case where there was an absolute click in the timeline rather than a drag
-        mediaPlayer.controls().setPosition((float) timelineSlider.getValue() / 100);
+        float position = (float) timelineSlider.getValue() / 100;
+        if (scrubber != null) {
+            scrubber.seekExact(position);
+        } else {
+            commands.submitLatest("setPosition", () -> mediaPlayer.controls().setPosition(position));
+        }
     }
 
     private synchronized void updateSliderPosition(float newValue) {
@@ -0,0 +1,75 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.format.RV32BufferFormat;
+
+/**
+ * The format of the video buffers requested from LibVLC.
+ * <p>
+ * With RV32, LibVLC converts each frame to RGB in the decoder thread and the frame is simply copied. With one of the
+ * planar YUV formats, LibVLC skips the conversion and it is done instead by a {@link YuvConverter}, in parallel.
+ */
+enum DecodeFormat {
+
+    RV32,
+
+    /**
+     * Planar YUV 4:2:0, with separate U and V planes.
+     */
+    I420,
+
+    /**
+     * Planar YUV 4:2:0, with one interleaved UV plane.
+     */
+    NV12;
+
+    /**
+     * Is the conversion to RGB done by a {@link YuvConverter}?
+     *
+     * @return <code>true</code> if this is a YUV format
+     */
+    boolean isYuv() {
+        return this != RV32;
+    }
+
+    /**
+     * Create the buffer format to request from LibVLC.
+     *
+     * @param width width of the video buffer, in pixels
+     * @param height height of the video buffer, in pixels
+     * @return buffer format
+     */
+    BufferFormat bufferFormat(int width, int height) {
+        // Each chroma sample covers a 2x2 block of pixels
+        int chromaWidth = (width + 1) / 2;
+        int chromaHeight = (height + 1) / 2;
+        switch (this) {
+            case I420:
+                return new BufferFormat("I420", width, height, new int[] {width, chromaWidth, chromaWidth}, new int[] {height, chromaHeight, chromaHeight});
+            case NV12:
+                return new BufferFormat("NV12", width, height, new int[] {width, chromaWidth * 2}, new int[] {height, chromaHeight});
+            case RV32:
+            default:
+                return new RV32BufferFormat(width, height);
+        }
+    }
+}
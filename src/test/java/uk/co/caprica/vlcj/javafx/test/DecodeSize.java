@@ -0,0 +1,137 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+/**
+ * Chooses the size of the video buffer from the size of the viewport the video is displayed in, rather than always
+ * decoding at the full size of the source video.
+ * <p>
+ * There is no point asking LibVLC for a 4K buffer to show in a 640x360 window - every frame would be copied and
+ * uploaded at sixteen times the size it is displayed at. Instead the buffer is sized to fit the viewport (in device
+ * pixels, i.e. taking account of the output scale), plus some headroom for quality, preserving the aspect ratio of the
+ * source and never exceeding the source size.
+ * <p>
+ * LibVLC only asks for a buffer format when video output starts, so when the viewport changes the video output has to
+ * be restarted to pick up a new size. That is disruptive, so it is only done when the size in use is more than
+ * {@link #HYSTERESIS} away from the ideal size - see {@link #renegotiationNeeded()}.
+ * <p>
+ * The viewport is set on the JavaFX application thread and the buffer size is chosen on the native thread.
+ */
+final class DecodeSize {
+
+    /**
+     * Fraction by which the buffer size must differ from the ideal size before it is worth renegotiating.
+     */
+    private static final double HYSTERESIS = 0.2;
+
+    /**
+     * Default headroom, the buffer is this many times the size of the viewport.
+     */
+    static final double DEFAULT_HEADROOM = 1.25;
+
+    private volatile double headroom = DEFAULT_HEADROOM;
+
+    private volatile double viewportWidth;
+
+    private volatile double viewportHeight;
+
+    private volatile int sourceWidth;
+
+    private volatile int sourceHeight;
+
+    private volatile int bufferWidth;
+
+    private volatile int bufferHeight;
+
+    /**
+     * Set the size of the viewport.
+     *
+     * @param width width, in device pixels
+     * @param height height, in device pixels
+     */
+    void setViewport(double width, double height) {
+        viewportWidth = width;
+        viewportHeight = height;
+    }
+
+    /**
+     * Set the headroom.
+     *
+     * @param headroom buffer size as a multiple of the viewport size, or zero to always use the source size
+     */
+    void setHeadroom(double headroom) {
+        this.headroom = headroom;
+    }
+
+    /**
+     * Choose the buffer size for a new video format.
+     * <p>
+     * Invoked by the native thread, from the buffer format callback.
+     *
+     * @param sourceWidth width of the source video
+     * @param sourceHeight height of the source video
+     */
+    void negotiate(int sourceWidth, int sourceHeight) {
+        this.sourceWidth = sourceWidth;
+        this.sourceHeight = sourceHeight;
+        double scale = scale(sourceWidth, sourceHeight);
+        bufferWidth = size(sourceWidth, scale);
+        bufferHeight = size(sourceHeight, scale);
+    }
+
+    int width() {
+        return bufferWidth;
+    }
+
+    int height() {
+        return bufferHeight;
+    }
+
+    /**
+     * Is the buffer size currently in use far enough away from the ideal size for the current viewport that the video
+     * format should be renegotiated?
+     *
+     * @return <code>true</code> if the video format should be renegotiated
+     */
+    boolean renegotiationNeeded() {
+        int sourceWidth = this.sourceWidth;
+        int bufferWidth = this.bufferWidth;
+        if (sourceWidth == 0 || bufferWidth == 0) {
+            return false;
+        }
+        double ratio = size(sourceWidth, scale(sourceWidth, sourceHeight)) / (double) bufferWidth;
+        return ratio > 1 + HYSTERESIS || ratio < 1 - HYSTERESIS;
+    }
+
+    private double scale(int sourceWidth, int sourceHeight) {
+        double headroom = this.headroom;
+        double viewportWidth = this.viewportWidth;
+        double viewportHeight = this.viewportHeight;
+        if (headroom <= 0 || viewportWidth <= 0 || viewportHeight <= 0) {
+            return 1;
+        }
+        return Math.min(1, headroom * Math.min(viewportWidth / sourceWidth, viewportHeight / sourceHeight));
+    }
+
+    private static int size(int sourceSize, double scale) {
+        // Keep the size even, some chroma conversions do not cope well with odd sizes
+        return Math.max(2, (int) Math.round(sourceSize * scale) & ~1);
+    }
+}
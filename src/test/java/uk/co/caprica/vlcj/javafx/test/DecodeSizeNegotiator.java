@@ -0,0 +1,137 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
+import javafx.scene.Scene;
+import javafx.scene.layout.Region;
+import javafx.stage.Window;
+import javafx.util.Duration;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+
+/**
+ * Keeps the {@link DecodeSize} viewport up to date with the size of the video surface, and restarts the video output to
+ * renegotiate the buffer size when needed.
+ * <p>
+ * Renegotiation waits until the video surface has stopped changing size for a short while, so dragging a window edge or going
+ * fullscreen restarts the video output at most once. The video output is restarted by disabling the video track and
+ * enabling it again, this causes a brief interruption to the video. The native calls to do that are made via the
+ * {@link MediaPlayerCommands}, never on the JavaFX application thread.
+ * <p>
+ * Must only be used on the JavaFX application thread.
+ */
+final class DecodeSizeNegotiator {
+
+    /**
+     * Time the video surface size must be stable for before renegotiating.
+     */
+    private static final Duration SETTLE_TIME = Duration.millis(500);
+
+    private final Region videoSurface;
+
+    private final MediaPlayer mediaPlayer;
+
+    private final MediaPlayerCommands commands;
+
+    private final DecodeSize decodeSize;
+
+    private final PauseTransition settle = new PauseTransition(SETTLE_TIME);
+
+    DecodeSizeNegotiator(Region videoSurface, MediaPlayer mediaPlayer, MediaPlayerCommands commands, DecodeSize decodeSize) {
+        this.videoSurface = videoSurface;
+        this.mediaPlayer = mediaPlayer;
+        this.commands = commands;
+        this.decodeSize = decodeSize;
+
+        settle.setOnFinished(actionEvent -> renegotiate());
+
+        InvalidationListener viewportListener = observable -> viewportChanged();
+        videoSurface.widthProperty().addListener(viewportListener);
+        videoSurface.heightProperty().addListener(viewportListener);
+        // The output scale is a property of the window, which may move to a screen with a different scale
+        videoSurface.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null) {
+                newScene.windowProperty().addListener((windowObservable, oldWindow, newWindow) -> {
+                    if (newWindow != null) {
+                        newWindow.outputScaleXProperty().addListener(viewportListener);
+                        newWindow.outputScaleYProperty().addListener(viewportListener);
+                    }
+                    viewportChanged();
+                });
+            }
+        });
+    }
+
+    /**
+     * Set the headroom, and renegotiate straight away if needed.
+     *
+     * @param headroom buffer size as a multiple of the viewport size, or zero to always use the source size
+     */
+    void setHeadroom(double headroom) {
+        decodeSize.setHeadroom(headroom);
+        renegotiate();
+    }
+
+    /**
+     * Restart the video output if the buffer size in use is too far from the ideal size for the viewport.
+     * <p>
+     * Nothing is done unless the media is playing.
+     */
+    void renegotiate() {
+        if (decodeSize.renegotiationNeeded()) {
+            restart();
+        }
+    }
+
+    /**
+     * Restart the video output, so that the buffer format is negotiated again (e.g. because the decode format was
+     * changed).
+     * <p>
+     * Nothing is done unless the media is playing, the buffer format is negotiated anyway when it next plays. Restarts
+     * requested while one is still waiting to be executed are coalesced.
+     */
+    void restart() {
+        // The command queue may be shared with other media players, so the restart is coalesced per negotiator
+        commands.submitLatest(this, "restartVideo", () -> {
+            if (!mediaPlayer.status().isPlaying()) {
+                return;
+            }
+            int track = mediaPlayer.video().track();
+            if (track != -1) {
+                mediaPlayer.video().setTrack(-1);
+                mediaPlayer.video().setTrack(track);
+            }
+        });
+    }
+
+    private void viewportChanged() {
+        double scaleX = 1;
+        double scaleY = 1;
+        Scene scene = videoSurface.getScene();
+        Window window = scene != null ? scene.getWindow() : null;
+        if (window != null) {
+            scaleX = window.getOutputScaleX();
+            scaleY = window.getOutputScaleY();
+        }
+        decodeSize.setViewport(videoSurface.getWidth() * scaleX, videoSurface.getHeight() * scaleY);
+        settle.playFromStart();
+    }
+}
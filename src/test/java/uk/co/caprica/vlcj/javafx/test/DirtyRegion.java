@@ -0,0 +1,112 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.geometry.Rectangle2D;
+
+/**
+ * A mutable bounding rectangle of the pixels in a video buffer that have changed since the buffer was last uploaded.
+ * <p>
+ * The full-frame rectangle is cached, since that is by far the most common case.
+ */
+final class DirtyRegion {
+
+    private final int width;
+
+    private final int height;
+
+    private final Rectangle2D full;
+
+    private int minX;
+
+    private int minY;
+
+    private int maxX;
+
+    private int maxY;
+
+    DirtyRegion(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.full = new Rectangle2D(0, 0, width, height);
+        setFull();
+    }
+
+    void clear() {
+        minX = width;
+        minY = height;
+        maxX = 0;
+        maxY = 0;
+    }
+
+    void setFull() {
+        minX = 0;
+        minY = 0;
+        maxX = width;
+        maxY = height;
+    }
+
+    /**
+     * Extend the region to include another rectangle.
+     *
+     * @param x0 left edge, inclusive
+     * @param y0 top edge, inclusive
+     * @param x1 right edge, exclusive
+     * @param y1 bottom edge, exclusive
+     */
+    void union(int x0, int y0, int x1, int y1) {
+        minX = Math.min(minX, x0);
+        minY = Math.min(minY, y0);
+        maxX = Math.max(maxX, Math.min(x1, width));
+        maxY = Math.max(maxY, Math.min(y1, height));
+    }
+
+    boolean isEmpty() {
+        return maxX <= minX || maxY <= minY;
+    }
+
+    boolean isFull() {
+        return minX == 0 && minY == 0 && maxX == width && maxY == height;
+    }
+
+    /**
+     * Get the number of pixels in the region.
+     *
+     * @return pixel count
+     */
+    long area() {
+        return isEmpty() ? 0 : (long) (maxX - minX) * (maxY - minY);
+    }
+
+    /**
+     * Get the region as a rectangle suitable for {@link javafx.scene.image.PixelBuffer#updateBuffer}.
+     *
+     * @return rectangle, or <code>null</code> if the region is empty
+     */
+    Rectangle2D toRectangle() {
+        if (isEmpty()) {
+            return null;
+        }
+        if (isFull()) {
+            return full;
+        }
+        return new Rectangle2D(minX, minY, maxX - minX, maxY - minY);
+    }
+}
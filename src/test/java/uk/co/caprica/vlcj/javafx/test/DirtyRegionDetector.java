@@ -0,0 +1,177 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Copies a new video frame over a previous one, tile by tile, copying only those tiles that actually changed.
+ * <p>
+ * This is worthwhile for sources like screen captures or slide decks where most of the picture is static from one
+ * frame to the next - the bounding rectangle of the changed tiles is all that needs to be uploaded to the texture.
+ * <p>
+ * The frame is compared in parallel horizontal stripes, one stripe per row of tiles.
+ * <p>
+ * For regular video content pretty much every tile changes every frame, so comparing is just wasted effort. If most of
+ * the frame changed, detection is bypassed (the whole frame is copied and marked dirty) for a while before trying
+ * again.
+ * <p>
+ * Only ever used by the native video thread.
+ */
+final class DirtyRegionDetector {
+
+    /**
+     * Width and height of each tile, in pixels.
+     */
+    private static final int TILE_SIZE = 64;
+
+    /**
+     * Bypass detection if more than this fraction of the tiles changed.
+     */
+    private static final double BYPASS_THRESHOLD = 0.5;
+
+    /**
+     * Number of frames to bypass detection for, before trying again.
+     */
+    private static final int BYPASS_FRAMES = 50;
+
+    private final int width;
+
+    private final int height;
+
+    private final int pitch;
+
+    private final int tilesX;
+
+    private final int tilesY;
+
+    /**
+     * Changed state of each tile for the current frame, each stripe only ever touches its own row of tiles.
+     */
+    private final boolean[] dirtyTiles;
+
+    private int bypassRemaining;
+
+    DirtyRegionDetector(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.pitch = width * 4;
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        this.dirtyTiles = new boolean[tilesX * tilesY];
+    }
+
+    /**
+     * Copy a new frame over the previous contents of a buffer, extending the dirty region of that buffer by whatever
+     * changed.
+     *
+     * @param source new frame
+     * @param target buffer containing the previous frame
+     * @param region dirty region of the target buffer
+     */
+    void copy(ByteBuffer source, ByteBuffer target, DirtyRegion region) {
+        if (bypassRemaining > 0) {
+            bypassRemaining--;
+            copyAll(source, target, region);
+            return;
+        }
+        Arrays.fill(dirtyTiles, false);
+        IntStream.range(0, tilesY).parallel().forEach(tileY -> copyStripe(source, target, tileY));
+        int changed = 0;
+        for (int tileY = 0; tileY < tilesY; tileY++) {
+            for (int tileX = 0; tileX < tilesX; tileX++) {
+                if (dirtyTiles[tileY * tilesX + tileX]) {
+                    changed++;
+                    region.union(tileX * TILE_SIZE, tileY * TILE_SIZE, (tileX + 1) * TILE_SIZE, (tileY + 1) * TILE_SIZE);
+                }
+            }
+        }
+        if (changed > BYPASS_THRESHOLD * dirtyTiles.length) {
+            bypassRemaining = BYPASS_FRAMES;
+        }
+    }
+
+    /**
+     * Copy the whole of a new frame over the previous contents of a buffer, without any detection.
+     *
+     * @param source new frame
+     * @param target buffer containing the previous frame
+     * @param region dirty region of the target buffer
+     */
+    void copyAll(ByteBuffer source, ByteBuffer target, DirtyRegion region) {
+        target.clear();
+        source.clear();
+        source.limit(target.capacity());
+        target.put(source);
+        source.clear();
+        region.setFull();
+    }
+
+    private void copyStripe(ByteBuffer source, ByteBuffer target, int tileY) {
+        // Each stripe needs its own position and limit
+        ByteBuffer src = source.duplicate();
+        ByteBuffer dst = target.duplicate();
+        int tileRow = tileY * tilesX;
+        int y0 = tileY * TILE_SIZE;
+        int y1 = Math.min(y0 + TILE_SIZE, height);
+        // Compare, skipping the rest of any tile already known to have changed
+        for (int y = y0; y < y1; y++) {
+            int lineStart = y * pitch;
+            for (int tileX = 0; tileX < tilesX; tileX++) {
+                if (!dirtyTiles[tileRow + tileX]) {
+                    int start = lineStart + tileX * TILE_SIZE * 4;
+                    int end = lineStart + Math.min((tileX + 1) * TILE_SIZE, width) * 4;
+                    window(src, start, end);
+                    window(dst, start, end);
+                    if (!src.equals(dst)) {
+                        dirtyTiles[tileRow + tileX] = true;
+                    }
+                }
+            }
+        }
+        // Copy each contiguous run of changed tiles, line by line
+        for (int tileX = 0; tileX < tilesX; ) {
+            if (!dirtyTiles[tileRow + tileX]) {
+                tileX++;
+                continue;
+            }
+            int runStart = tileX;
+            while (tileX < tilesX && dirtyTiles[tileRow + tileX]) {
+                tileX++;
+            }
+            for (int y = y0; y < y1; y++) {
+                int lineStart = y * pitch;
+                int start = lineStart + runStart * TILE_SIZE * 4;
+                int end = lineStart + Math.min(tileX * TILE_SIZE, width) * 4;
+                window(src, start, end);
+                window(dst, start, end);
+                dst.put(src);
+            }
+        }
+    }
+
+    private static void window(ByteBuffer buffer, int start, int end) {
+        buffer.clear();
+        buffer.position(start);
+        buffer.limit(end);
+    }
+}
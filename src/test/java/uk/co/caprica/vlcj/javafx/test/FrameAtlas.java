@@ -0,0 +1,173 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+import javafx.util.Callback;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A single large image containing the video frames of many players, laid out in a grid of equally sized cells.
+ * <p>
+ * Each {@link PixelBuffer} is a separate texture, so a mosaic of separate images needs a texture upload per tile per
+ * pulse - with an atlas there is only ever one upload per pulse, of the bounding rectangle of the cells that changed,
+ * and one image to draw.
+ * <p>
+ * The atlas is double-buffered for the same reason as the {@link SwapChain} - the render thread may still be uploading
+ * the atlas presented on the previous pulse. Each atlas buffer keeps track of which version of each tile it contains,
+ * so a tile that changed is copied into each buffer once (the first time that buffer is written after the change).
+ * <p>
+ * Must only be used on the JavaFX application thread.
+ */
+final class FrameAtlas {
+
+    private static final int BUFFER_COUNT = 2;
+
+    private final int columns;
+
+    private final int cellWidth;
+
+    private final int cellHeight;
+
+    private final int pitch;
+
+    private final ByteBuffer[] buffers = new ByteBuffer[BUFFER_COUNT];
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final PixelBuffer<ByteBuffer>[] pixelBuffers = new PixelBuffer[BUFFER_COUNT];
+
+    private final WritableImage[] images = new WritableImage[BUFFER_COUNT];
+
+    /**
+     * Version of each tile contained in each buffer.
+     */
+    private final long[][] bufferVersions;
+
+    /**
+     * Current version of each tile.
+     */
+    private final long[] tileVersions;
+
+    private final DirtyRegion dirtyRegion;
+
+    private final Callback<PixelBuffer<ByteBuffer>, Rectangle2D> updateCallback;
+
+    private int back;
+
+    private WritableImage image;
+
+    private long uploaded;
+
+    /**
+     * Create an atlas.
+     *
+     * @param columns number of columns of cells
+     * @param rows number of rows of cells
+     * @param cellWidth width of each cell, in pixels
+     * @param cellHeight height of each cell, in pixels
+     * @param pixelFormat pixel format of the atlas
+     */
+    FrameAtlas(int columns, int rows, int cellWidth, int cellHeight, WritablePixelFormat<ByteBuffer> pixelFormat) {
+        this.columns = columns;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        int width = columns * cellWidth;
+        int height = rows * cellHeight;
+        this.pitch = width * 4;
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(pitch * height);
+            pixelBuffers[i] = new PixelBuffer<>(width, height, buffers[i], pixelFormat);
+            images[i] = new WritableImage(pixelBuffers[i]);
+        }
+        this.bufferVersions = new long[BUFFER_COUNT][columns * rows];
+        this.tileVersions = new long[columns * rows];
+        this.dirtyRegion = new DirtyRegion(width, height);
+        this.updateCallback = pixelBuffer -> dirtyRegion.toRectangle();
+    }
+
+    /**
+     * Record that a tile has a new frame.
+     *
+     * @param tile index of the tile
+     */
+    void tileChanged(int tile) {
+        tileVersions[tile]++;
+    }
+
+    /**
+     * Copy every tile that changed into the back buffer, and present it.
+     * <p>
+     * Must only be invoked during a pulse.
+     *
+     * @param frames current frame of each tile, each frame must be exactly the size of a cell; a <code>null</code>
+     *               frame means the tile does not have a frame yet
+     * @return atlas image to render, <code>null</code> if no tile has had a frame yet
+     */
+    WritableImage present(ByteBuffer[] frames) {
+        ByteBuffer target = buffers[back];
+        long[] versions = bufferVersions[back];
+        dirtyRegion.clear();
+        for (int tile = 0; tile < frames.length; tile++) {
+            ByteBuffer frame = frames[tile];
+            if (frame != null && versions[tile] != tileVersions[tile]) {
+                int x = (tile % columns) * cellWidth;
+                int y = (tile / columns) * cellHeight;
+                copyCell(frame, target, x, y);
+                dirtyRegion.union(x, y, x + cellWidth, y + cellHeight);
+                versions[tile] = tileVersions[tile];
+            }
+        }
+        if (dirtyRegion.isEmpty()) {
+            uploaded = 0;
+            return image;
+        }
+        pixelBuffers[back].updateBuffer(updateCallback);
+        uploaded = dirtyRegion.area() * 4;
+        image = images[back];
+        back = (back + 1) % BUFFER_COUNT;
+        return image;
+    }
+
+    /**
+     * Get the number of bytes the last {@link #present(ByteBuffer[])} needed to upload.
+     *
+     * @return number of bytes, zero if nothing changed
+     */
+    long uploaded() {
+        return uploaded;
+    }
+
+    private void copyCell(ByteBuffer source, ByteBuffer target, int x, int y) {
+        int rowLength = cellWidth * 4;
+        for (int row = 0; row < cellHeight; row++) {
+            int sourceOffset = row * rowLength;
+            int targetOffset = (y + row) * pitch + x * 4;
+            source.limit(sourceOffset + rowLength).position(sourceOffset);
+            target.position(targetOffset);
+            target.put(source);
+        }
+        source.clear();
+        target.clear();
+    }
+}
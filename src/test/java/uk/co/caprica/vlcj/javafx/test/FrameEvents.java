@@ -0,0 +1,153 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for the lifecycle of a video frame, from buffer negotiation to the timer tick that
+ * presents it - so that e.g. dropped frames can be correlated with garbage collection pauses and native stalls in the
+ * same recording.
+ * <p>
+ * The events are used in the recommended way, a new event for each occurrence, which the JIT compiler eliminates when
+ * the event is not enabled - so they are cheap enough to leave in place. The frequent events have thresholds in the
+ * "vlcj-javafx.jfc" recording settings in the test resources, so only the slow occurrences are actually recorded (set a
+ * threshold to "0 ms" to record every frame), e.g.
+ * <pre>
+ *   -XX:StartFlightRecording=settings=src/test/resources/vlcj-javafx.jfc,filename=vlcj-javafx.jfr
+ * </pre>
+ * None of the events record a stack trace, each one is only ever committed from one place.
+ */
+final class FrameEvents {
+
+    private static final String CATEGORY = "vlcj JavaFX";
+
+    private FrameEvents() {
+    }
+
+    @Name("uk.co.caprica.vlcj.javafx.BufferFormat")
+    @Label("Buffer Format")
+    @Description("Negotiation of the video buffer format with LibVLC")
+    @Category({CATEGORY, "Video Buffers"})
+    @StackTrace(false)
+    static final class BufferFormat extends Event {
+
+        @Label("Source Width")
+        int sourceWidth;
+
+        @Label("Source Height")
+        int sourceHeight;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Format")
+        String format;
+    }
+
+    @Name("uk.co.caprica.vlcj.javafx.AllocatedBuffers")
+    @Label("Allocated Buffers")
+    @Description("Allocation of the swap chain after LibVLC allocated its native video buffers")
+    @Category({CATEGORY, "Video Buffers"})
+    @StackTrace(false)
+    static final class AllocatedBuffers extends Event {
+
+        @Label("Native Buffer Size")
+        @DataAmount
+        long nativeBytes;
+
+        @Label("Swap Chain Size")
+        @DataAmount
+        long swapChainBytes;
+    }
+
+    @Name("uk.co.caprica.vlcj.javafx.FrameDisplay")
+    @Label("Frame Display")
+    @Description("A video frame delivered by LibVLC, copied or converted into the swap chain")
+    @Category({CATEGORY, "Frames"})
+    @StackTrace(false)
+    static final class FrameDisplay extends Event {
+
+        @Label("Sequence Number")
+        long sequence;
+
+        @Label("Replaced")
+        @Description("The previous frame was replaced before it was ever presented")
+        boolean replaced;
+
+        @Label("Suspended")
+        @Description("The frame was ignored because the video can not be seen")
+        boolean suspended;
+    }
+
+    @Name("uk.co.caprica.vlcj.javafx.FrameUpload")
+    @Label("Frame Upload")
+    @Description("A pixel buffer marked as updated, the actual texture upload happens later on the render thread")
+    @Category({CATEGORY, "Frames"})
+    @StackTrace(false)
+    static final class FrameUpload extends Event {
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("uk.co.caprica.vlcj.javafx.RenderFrame")
+    @Label("Render Frame")
+    @Description("A frame rendered to the video view, on the JavaFX application thread")
+    @Category({CATEGORY, "Rendering"})
+    @StackTrace(false)
+    static final class RenderFrame extends Event {
+
+        @Label("Presented")
+        @Description("A new frame was presented, rather than the same frame again")
+        boolean presented;
+
+        @Label("Rendered")
+        @Description("The video view was redrawn, rather than skipped because nothing changed")
+        boolean rendered;
+    }
+
+    @Name("uk.co.caprica.vlcj.javafx.TimerTick")
+    @Label("Timer Tick")
+    @Description("A tick of the render timer")
+    @Category({CATEGORY, "Rendering"})
+    @StackTrace(false)
+    static final class TimerTick extends Event {
+
+        @Label("Timer")
+        String timer;
+
+        @Label("Interval")
+        @Description("Time since the previous tick")
+        @Timespan
+        long interval;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Draws a machine-readable marker into the top-left corner of a video frame, so that the end-to-end delay from the
+ * frame being delivered by LibVLC to it appearing on screen can be measured outside of the process - with a screen
+ * grab, or a camera pointed at the screen.
+ * <p>
+ * The marker is two rows of square blocks, each row is a white block and a black block followed by 32 bits, most
+ * significant bit first, white for one and black for zero:
+ * <ul>
+ *     <li>the first row is the frame sequence number;</li>
+ *     <li>the second row is the time the frame was delivered, in milliseconds since the epoch (the low 32 bits, as
+ *         from {@link System#currentTimeMillis()}).</li>
+ * </ul>
+ * The marker is not drawn if the frame is too small to contain it.
+ */
+final class FrameMarker {
+
+    /**
+     * Size of each block, in pixels.
+     */
+    static final int BLOCK_SIZE = 8;
+
+    /**
+     * Number of blocks in each row, two guard blocks and 32 bits.
+     */
+    private static final int BLOCKS = 34;
+
+    static final int WIDTH = BLOCKS * BLOCK_SIZE;
+
+    static final int HEIGHT = 2 * BLOCK_SIZE;
+
+    private static final int WHITE = 0xffffffff;
+
+    private static final int BLACK = 0xff000000;
+
+    private FrameMarker() {
+    }
+
+    /**
+     * Draw the marker.
+     *
+     * @param buffer frame buffer, 32-bit BGRA pixels
+     * @param width width of the frame, in pixels
+     * @param height height of the frame, in pixels
+     * @param sequence frame sequence number
+     * @param timeMillis time the frame was delivered, in milliseconds since the epoch
+     * @return <code>true</code> if the marker was drawn; <code>false</code> if the frame is too small
+     */
+    static boolean draw(ByteBuffer buffer, int width, int height, long sequence, long timeMillis) {
+        if (width < WIDTH || height < HEIGHT) {
+            return false;
+        }
+        // The pixels are BGRA bytes, so the colours (ARGB ints) must be written little-endian whatever the buffer order
+        ByteBuffer target = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        drawRow(target, width, 0, (int) sequence);
+        drawRow(target, width, BLOCK_SIZE, (int) timeMillis);
+        return true;
+    }
+
+    private static void drawRow(ByteBuffer buffer, int width, int top, int bits) {
+        for (int y = top; y < top + BLOCK_SIZE; y++) {
+            int row = y * width * 4;
+            for (int block = 0; block < BLOCKS; block++) {
+                int colour;
+                if (block < 2) {
+                    colour = block == 0 ? WHITE : BLACK;
+                } else {
+                    colour = (bits >>> (BLOCKS - 1 - block) & 1) != 0 ? WHITE : BLACK;
+                }
+                int offset = row + block * BLOCK_SIZE * 4;
+                for (int x = 0; x < BLOCK_SIZE; x++) {
+                    buffer.putInt(offset + x * 4, colour);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.application.Platform;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A coalescing "frame ready" signal from the native video thread to the JavaFX application thread.
+ * <p>
+ * Posting a {@link Platform#runLater(Runnable)} for every decoded frame means that if the JavaFX application thread
+ * falls behind (e.g. during a resize, or a garbage collection) the runnables pile up in the event queue and stale
+ * frames get replayed one after the other, with the latency growing all the time.
+ * <p>
+ * Instead, at most one task is ever outstanding - if a frame arrives while a task is still pending, that pending task
+ * will pick up the newer frame when it eventually runs, and the frame it would have shown is counted as replaced.
+ * <p>
+ * The counters can be registered with the platform MBean server, to monitor them via JMX.
+ */
+final class FrameSignal implements Runnable, FrameSignalMXBean {
+
+    private final Runnable task;
+
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    private final AtomicLong signalled = new AtomicLong();
+
+    private final AtomicLong replaced = new AtomicLong();
+
+    /**
+     * Create a frame signal.
+     *
+     * @param task task to run on the JavaFX application thread when a new frame is ready
+     */
+    FrameSignal(Runnable task) {
+        this.task = task;
+    }
+
+    /**
+     * Register the counters with the platform MBean server.
+     *
+     * @param name name to distinguish these counters from any others
+     */
+    void register(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("uk.co.caprica.vlcj.javafx:type=FrameSignal,name=" + name));
+        } catch (JMException e) {
+            e.printStackTrace(System.err);
+        }
+    }
+
+    /**
+     * Signal that a new frame is ready.
+     * <p>
+     * May be invoked from any thread, usually the native video thread.
+     */
+    void signal() {
+        signalled.incrementAndGet();
+        if (pending.compareAndSet(false, true)) {
+            Platform.runLater(this);
+        } else {
+            replaced.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void run() {
+        // Clear the flag before running the task, so a frame arriving while the task is running is not lost
+        pending.set(false);
+        task.run();
+    }
+
+    /**
+     * Get the number of frames that have been signalled.
+     *
+     * @return number of frames
+     */
+    @Override
+    public long getFramesSignalled() {
+        return signalled.get();
+    }
+
+    /**
+     * Get the number of frames that were replaced by a newer frame before they were shown.
+     *
+     * @return number of frames
+     */
+    @Override
+    public long getFramesReplaced() {
+        return replaced.get();
+    }
+}
@@ -0,0 +1,454 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.application.Platform;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Video frame accounting and timing statistics.
+ * <p>
+ * The frame counters distinguish between frames delivered by the native display() callback, unique frames actually
+ * presented, ticks that presented the same frame again, and frames that were never shown at all because a newer frame
+ * replaced them first. Held frames are ticks where a new frame was available but was deliberately not presented yet
+ * because it was not due (these ticks are also counted as repeats).
+ * <p>
+ * Durations are measured with {@link System#nanoTime()} and kept in {@link LatencyHistogram}s, so nothing is
+ * allocated when recording.
+ * <p>
+ * The delivered and dropped counters, and the seek latency, are updated by the native video thread, the seek counters
+ * are updated by whichever thread seeks, everything else is updated on the JavaFX application thread.
+ * <p>
+ * The statistics can be registered with the platform MBean server, to monitor them via JMX.
+ */
+final class FrameStats implements FrameStatsMXBean {
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile long presented;
+
+    private volatile long repeated;
+
+    private volatile long held;
+
+    private volatile long rendersSkipped;
+
+    private final LatencyHistogram renderTime = new LatencyHistogram();
+
+    private final LatencyHistogram presentInterval = new LatencyHistogram();
+
+    private final LatencyHistogram cadenceError = new LatencyHistogram();
+
+    private final RollingLatency frameLatency = new RollingLatency();
+
+    /**
+     * Wake-up lateness of the timer, if the timer measures it.
+     */
+    private volatile LatencyHistogram timerJitter;
+
+    private final AtomicLong seeksRequested = new AtomicLong();
+
+    private final AtomicLong seeksSent = new AtomicLong();
+
+    private final LatencyHistogram seekLatency = new LatencyHistogram();
+
+    private final ThroughputMeter uploadMeter = new ThroughputMeter();
+
+    private volatile long canvasCommandBytes = -1;
+
+    private volatile long canvasCommandBytesMax = -1;
+
+    private long start = System.nanoTime();
+
+    private long lastPresent;
+
+    /**
+     * Register these statistics with the platform MBean server.
+     *
+     * @param name name to distinguish these statistics from those of any other video surface
+     */
+    void register(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("uk.co.caprica.vlcj.javafx:type=FrameStats,name=" + name));
+        } catch (JMException e) {
+            e.printStackTrace(System.err);
+        }
+    }
+
+    /**
+     * Record a frame delivered by the native display() callback.
+     *
+     * @param replaced <code>true</code> if the previously delivered frame was replaced before it was ever presented
+     */
+    void frameDelivered(boolean replaced) {
+        delivered.incrementAndGet();
+        if (replaced) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record a new frame being presented.
+     *
+     * @param uploadedBytes number of bytes of the frame that need to be uploaded
+     */
+    void framePresented(long uploadedBytes) {
+        long now = System.nanoTime();
+        if (lastPresent != 0) {
+            presentInterval.record(now - lastPresent);
+        }
+        lastPresent = now;
+        presented++;
+        uploadMeter.add(uploadedBytes);
+    }
+
+    /**
+     * Record a tick that presented the same frame again.
+     */
+    void frameRepeated() {
+        repeated++;
+        uploadMeter.add(0);
+    }
+
+    /**
+     * Record a tick that held back a new frame because it was not due to be presented yet.
+     */
+    void frameHeld() {
+        held++;
+        frameRepeated();
+    }
+
+    /**
+     * Record a tick that did not redraw the canvas at all, because nothing had changed.
+     */
+    void renderSkipped() {
+        rendersSkipped++;
+    }
+
+    /**
+     * Record how far a presented frame was from its ideal presentation time, given the media frame rate.
+     *
+     * @param nanos absolute cadence error, in nanoseconds
+     */
+    void cadenceError(long nanos) {
+        cadenceError.record(nanos);
+    }
+
+    /**
+     * Record the delay from a frame being delivered by the native display() callback to the pulse that presents it.
+     *
+     * @param nanos latency, in nanoseconds
+     * @param now current time, from {@link System#nanoTime()}
+     */
+    void frameLatency(long nanos, long now) {
+        frameLatency.record(nanos, now);
+    }
+
+    /**
+     * Record the time taken to render a tick.
+     *
+     * @param nanos render time, in nanoseconds
+     */
+    void renderTime(long nanos) {
+        renderTime.record(nanos);
+    }
+
+    /**
+     * Record the size of the drawing commands queued for the canvas after it was rendered, if the video is drawn to a
+     * canvas.
+     *
+     * @param bytes number of bytes queued, or -1 if not known
+     */
+    void canvasCommandBytes(long bytes) {
+        canvasCommandBytes = bytes;
+        if (bytes > canvasCommandBytesMax) {
+            canvasCommandBytesMax = bytes;
+        }
+    }
+
+    /**
+     * Record a seek being requested, it may later be replaced by another before it is sent.
+     */
+    void seekRequested() {
+        seeksRequested.incrementAndGet();
+    }
+
+    /**
+     * Record a seek actually being sent to the media player.
+     */
+    void seekSent() {
+        seeksSent.incrementAndGet();
+    }
+
+    /**
+     * Record the time from a seek being sent to the first video frame after it.
+     *
+     * @param nanos seek latency, in nanoseconds
+     */
+    void seekCompleted(long nanos) {
+        seekLatency.record(nanos);
+    }
+
+    /**
+     * Get the time since the statistics were last reset.
+     *
+     * @return elapsed time, in nanoseconds
+     */
+    long elapsed() {
+        return System.nanoTime() - start;
+    }
+
+    LatencyHistogram renderTimeHistogram() {
+        return renderTime;
+    }
+
+    LatencyHistogram presentIntervalHistogram() {
+        return presentInterval;
+    }
+
+    LatencyHistogram cadenceErrorHistogram() {
+        return cadenceError;
+    }
+
+    RollingLatency frameLatency() {
+        return frameLatency;
+    }
+
+    /**
+     * Publish the wake-up jitter of the timer with these statistics.
+     * <p>
+     * The histogram belongs to the timer, so it is not reset with these statistics.
+     *
+     * @param jitter jitter histogram, or <code>null</code> for none
+     */
+    void setTimerJitter(LatencyHistogram jitter) {
+        timerJitter = jitter;
+    }
+
+    @Override
+    public long getFramesDelivered() {
+        return delivered.get();
+    }
+
+    @Override
+    public long getFramesPresented() {
+        return presented;
+    }
+
+    @Override
+    public long getFramesRepeated() {
+        return repeated;
+    }
+
+    @Override
+    public long getFramesDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public long getFramesHeld() {
+        return held;
+    }
+
+    @Override
+    public long getRendersSkipped() {
+        return rendersSkipped;
+    }
+
+    @Override
+    public long getRenderTimeP50() {
+        return renderTime.percentile(50);
+    }
+
+    @Override
+    public long getRenderTimeP99() {
+        return renderTime.percentile(99);
+    }
+
+    @Override
+    public long getRenderTimeP999() {
+        return renderTime.percentile(99.9);
+    }
+
+    @Override
+    public long getRenderTimeMax() {
+        return renderTime.max();
+    }
+
+    @Override
+    public long getPresentIntervalP50() {
+        return presentInterval.percentile(50);
+    }
+
+    @Override
+    public long getPresentIntervalP99() {
+        return presentInterval.percentile(99);
+    }
+
+    @Override
+    public long getPresentIntervalP999() {
+        return presentInterval.percentile(99.9);
+    }
+
+    @Override
+    public long getPresentIntervalMax() {
+        return presentInterval.max();
+    }
+
+    @Override
+    public long getCadenceErrorP50() {
+        return cadenceError.percentile(50);
+    }
+
+    @Override
+    public long getCadenceErrorP99() {
+        return cadenceError.percentile(99);
+    }
+
+    @Override
+    public long getCadenceErrorMax() {
+        return cadenceError.max();
+    }
+
+    @Override
+    public long getFrameLatencyP50() {
+        return frameLatency.total().percentile(50);
+    }
+
+    @Override
+    public long getFrameLatencyP99() {
+        return frameLatency.total().percentile(99);
+    }
+
+    @Override
+    public long getFrameLatencyMax() {
+        return frameLatency.total().max();
+    }
+
+    @Override
+    public long getRecentFrameLatencyP50() {
+        return frameLatency.recentP50();
+    }
+
+    @Override
+    public long getRecentFrameLatencyP99() {
+        return frameLatency.recentP99();
+    }
+
+    @Override
+    public long getRecentFrameLatencyMax() {
+        return frameLatency.recentMax();
+    }
+
+    @Override
+    public long getTimerJitterP50() {
+        LatencyHistogram jitter = timerJitter;
+        return jitter != null ? jitter.percentile(50) : 0;
+    }
+
+    @Override
+    public long getTimerJitterP99() {
+        LatencyHistogram jitter = timerJitter;
+        return jitter != null ? jitter.percentile(99) : 0;
+    }
+
+    @Override
+    public long getTimerJitterMax() {
+        LatencyHistogram jitter = timerJitter;
+        return jitter != null ? jitter.max() : 0;
+    }
+
+    @Override
+    public long getSeeksRequested() {
+        return seeksRequested.get();
+    }
+
+    @Override
+    public long getSeeksSent() {
+        return seeksSent.get();
+    }
+
+    @Override
+    public long getSeekLatencyP50() {
+        return seekLatency.percentile(50);
+    }
+
+    @Override
+    public long getSeekLatencyP99() {
+        return seekLatency.percentile(99);
+    }
+
+    @Override
+    public long getSeekLatencyMax() {
+        return seekLatency.max();
+    }
+
+    @Override
+    public double getUploadBytesPerSecond() {
+        return uploadMeter.rate();
+    }
+
+    @Override
+    public long getCanvasCommandBytes() {
+        return canvasCommandBytes;
+    }
+
+    @Override
+    public long getCanvasCommandBytesMax() {
+        return canvasCommandBytesMax;
+    }
+
+    /**
+     * Reset the statistics.
+     * <p>
+     * May be invoked from any thread, the reset itself always happens on the JavaFX application thread.
+     */
+    @Override
+    public void reset() {
+        if (Platform.isFxApplicationThread()) {
+            start = System.nanoTime();
+            lastPresent = 0;
+            delivered.set(0);
+            dropped.set(0);
+            presented = 0;
+            repeated = 0;
+            held = 0;
+            rendersSkipped = 0;
+            renderTime.reset();
+            presentInterval.reset();
+            cadenceError.reset();
+            frameLatency.reset();
+            seeksRequested.set(0);
+            seeksSent.set(0);
+            seekLatency.reset();
+            uploadMeter.reset();
+            canvasCommandBytes = -1;
+            canvasCommandBytesMax = -1;
+        } else {
+            Platform.runLater(this::reset);
+        }
+    }
+}
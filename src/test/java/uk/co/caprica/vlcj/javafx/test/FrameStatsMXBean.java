@@ -0,0 +1,98 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+/**
+ * Management interface for the video frame statistics, see {@link FrameStats}.
+ * <p>
+ * All durations are in nanoseconds.
+ */
+public interface FrameStatsMXBean {
+
+    long getFramesDelivered();
+
+    long getFramesPresented();
+
+    long getFramesRepeated();
+
+    long getFramesDropped();
+
+    long getFramesHeld();
+
+    long getRendersSkipped();
+
+    long getRenderTimeP50();
+
+    long getRenderTimeP99();
+
+    long getRenderTimeP999();
+
+    long getRenderTimeMax();
+
+    long getPresentIntervalP50();
+
+    long getPresentIntervalP99();
+
+    long getPresentIntervalP999();
+
+    long getPresentIntervalMax();
+
+    long getCadenceErrorP50();
+
+    long getCadenceErrorP99();
+
+    long getCadenceErrorMax();
+
+    long getFrameLatencyP50();
+
+    long getFrameLatencyP99();
+
+    long getFrameLatencyMax();
+
+    long getRecentFrameLatencyP50();
+
+    long getRecentFrameLatencyP99();
+
+    long getRecentFrameLatencyMax();
+
+    long getTimerJitterP50();
+
+    long getTimerJitterP99();
+
+    long getTimerJitterMax();
+
+    long getSeeksRequested();
+
+    long getSeeksSent();
+
+    long getSeekLatencyP50();
+
+    long getSeekLatencyP99();
+
+    long getSeekLatencyMax();
+
+    double getUploadBytesPerSecond();
+
+    long getCanvasCommandBytes();
+
+    long getCanvasCommandBytesMax();
+
+    void reset();
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.PixelFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the path a video frame takes from the native buffer to the pixel buffer update.
+ * <p>
+ * The "publish" benchmark is the work done on the native video thread in the display() callback, the
+ * "publishAndPresent" benchmark adds the work done on the JavaFX application thread to swap and update the pixel
+ * buffer (a batch of frames is run per hop to the JavaFX application thread to keep the hop itself out of the
+ * measurement).
+ * <p>
+ * The frames come from a {@link SyntheticFrameGenerator} - with the "bars" and "noise" patterns every frame changes
+ * completely, with the "static" pattern only a small part of each frame changes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameUploadBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"1920x1080", "3840x2160"})
+    public String resolution;
+
+    @Param({"bars", "noise", "static"})
+    public String pattern;
+
+    @Param({"false", "true"})
+    public boolean detectDirtyRegions;
+
+    private final ByteBuffer[] frames = new ByteBuffer[2];
+
+    private SwapChain swapChain;
+
+    private long frameNumber;
+
+    @Setup
+    public void setUp() {
+        Benchmarks.startToolkit();
+        int[] size = Benchmarks.parseResolution(resolution);
+        SyntheticFrameGenerator generator = new SyntheticFrameGenerator(size[0], size[1], SyntheticFrameGenerator.Pattern.valueOf(pattern.toUpperCase()));
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = ByteBuffer.allocateDirect(size[0] * size[1] * 4);
+            // Each frame starts as a copy of the one before, as a real source would, so the frames only differ by
+            // what the pattern changes (for the static pattern, just the moving square)
+            if (i > 0) {
+                ByteBuffer previous = frames[i - 1].duplicate();
+                previous.clear();
+                frames[i].put(previous);
+                frames[i].clear();
+            }
+            generator.nextFrame(frames[i]);
+        }
+        swapChain = new SwapChain(size[0], size[1], PixelFormat.getByteBgraPreInstance());
+    }
+
+    @Benchmark
+    public boolean publish() {
+        return swapChain.publish(frames[(int) (frameNumber++ & 1)], detectDirtyRegions);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publishAndPresent() {
+        Benchmarks.runAndWait(() -> {
+            for (int i = 0; i < BATCH; i++) {
+                swapChain.publish(frames[(int) (frameNumber++ & 1)], detectDirtyRegions);
+                if (swapChain.swap()) {
+                    DirtyRegion dirtyRegion = swapChain.frontDirtyRegion();
+                    Rectangle2D updatedBuffer = dirtyRegion.toRectangle();
+                    if (updatedBuffer != null) {
+                        swapChain.frontPixelBuffer().updateBuffer(pixBuf -> updatedBuffer);
+                        dirtyRegion.clear();
+                    }
+                }
+            }
+        });
+    }
+}
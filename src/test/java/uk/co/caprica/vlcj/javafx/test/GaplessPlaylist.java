@@ -0,0 +1,338 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.media.Media;
+import uk.co.caprica.vlcj.media.MediaEventAdapter;
+import uk.co.caprica.vlcj.media.MediaParsedStatus;
+import uk.co.caprica.vlcj.media.MediaRef;
+import uk.co.caprica.vlcj.media.Meta;
+import uk.co.caprica.vlcj.media.ParseFlag;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Plays a list of media, one after the other and repeating, without a gap between the items.
+ * <p>
+ * There are two {@link PlayerSlot}s, the active slot is the one being presented, the standby slot holds the next item.
+ * As soon as an item starts playing, the next item is parsed and prerolled in the standby slot, on a background thread
+ * - the demux probing, decoder start-up and video buffer allocation all happen then, and the standby slot is left
+ * paused on the first frame of the next item.
+ * <p>
+ * When the active item finishes, the standby slot is resumed and becomes the active slot - the cut is just a matter of
+ * rendering from the other slot's video frames, its first frame is already there, so the next pulse presents it. The
+ * slot that was active then becomes the standby slot, and prerolls the item after that.
+ * <p>
+ * All of the media player calls are made by a single command thread, never on the JavaFX application thread.
+ */
+final class GaplessPlaylist {
+
+    /**
+     * Maximum time to wait for an item to be parsed, in milliseconds.
+     */
+    private static final int PARSE_TIMEOUT = 5000;
+
+    /**
+     * An item in the playlist, with the metadata found when it was parsed.
+     */
+    static final class Item {
+
+        private final int index;
+
+        private final String mrl;
+
+        private final String title;
+
+        private final long duration;
+
+        private Item(int index, String mrl, String title, long duration) {
+            this.index = index;
+            this.mrl = mrl;
+            this.title = title;
+            this.duration = duration;
+        }
+
+        int index() {
+            return index;
+        }
+
+        String mrl() {
+            return mrl;
+        }
+
+        /**
+         * Get the title of the item.
+         *
+         * @return title, or the MRL if the media has no title
+         */
+        String title() {
+            return title;
+        }
+
+        /**
+         * Get the duration of the item.
+         *
+         * @return duration, in milliseconds, or -1 if not known
+         */
+        long duration() {
+            return duration;
+        }
+    }
+
+    private final MediaPlayerFactory mediaPlayerFactory;
+
+    private final List<String> mrls;
+
+    private final PlayerSlot[] slots = new PlayerSlot[2];
+
+    private final MediaPlayerCommands commands;
+
+    /**
+     * Index of the active slot.
+     */
+    private volatile int active;
+
+    /**
+     * The item playing in the active slot, used only by the command thread.
+     */
+    private Item activeItem;
+
+    /**
+     * The item prerolled in the standby slot, or <code>null</code> if it could not be prerolled - used only by the
+     * command thread.
+     */
+    private Item standbyItem;
+
+    private volatile Consumer<Item> onItemChanged;
+
+    /**
+     * Create a playlist.
+     *
+     * @param mediaPlayerFactory factory to create the media players and media
+     * @param mrls MRLs of the items to play, in order
+     * @param name name to distinguish the statistics of this playlist from those of any other
+     */
+    GaplessPlaylist(MediaPlayerFactory mediaPlayerFactory, List<String> mrls, String name) {
+        this.mediaPlayerFactory = mediaPlayerFactory;
+        this.mrls = new ArrayList<>(mrls);
+        this.commands = new MediaPlayerCommands(name + "-commands");
+        commands.register(name);
+        for (int i = 0; i < slots.length; i++) {
+            PlayerSlot slot = new PlayerSlot(mediaPlayerFactory, name + "-" + i);
+            slot.mediaPlayer().events().addMediaPlayerEventListener(new MediaPlayerEventAdapter() {
+                @Override
+                public void finished(MediaPlayer mediaPlayer) {
+                    if (slot == slots[active]) {
+                        commands.submitLatest("cut", () -> cut(slot));
+                    }
+                }
+
+                @Override
+                public void error(MediaPlayer mediaPlayer) {
+                    if (slot == slots[active]) {
+                        commands.submitLatest("cut", () -> cut(slot));
+                    }
+                }
+            });
+            slots[i] = slot;
+        }
+    }
+
+    /**
+     * Start playing the first item.
+     */
+    void start() {
+        commands.submit("start", () -> {
+            Item item = playNow(0);
+            if (item != null) {
+                activeItem = item;
+                notifyItemChanged(item);
+                prerollNext();
+            }
+        });
+    }
+
+    /**
+     * Skip straight to the next item.
+     */
+    void next() {
+        // The same kind as the cut when an item ends, so a skip and an end of item waiting together only cut once
+        commands.submitLatest("cut", () -> cut(null));
+    }
+
+    /**
+     * Get the slot that should currently be presented.
+     * <p>
+     * This changes at each item boundary, the caller should check it on every pulse.
+     *
+     * @return active slot
+     */
+    PlayerSlot activeSlot() {
+        return slots[active];
+    }
+
+    /**
+     * Set an action to invoke, on the command thread, each time a new item starts playing.
+     *
+     * @param onItemChanged action, or <code>null</code> for none
+     */
+    void setOnItemChanged(Consumer<Item> onItemChanged) {
+        this.onItemChanged = onItemChanged;
+    }
+
+    /**
+     * Stop playing, and release the media players.
+     */
+    void release() {
+        commands.release();
+        for (PlayerSlot slot : slots) {
+            slot.release();
+        }
+    }
+
+    /**
+     * Cut to the item in the standby slot.
+     *
+     * @param from slot whose item ended, or <code>null</code> to skip whichever item is active
+     */
+    private void cut(PlayerSlot from) {
+        // Ignore the end of an item that is no longer active, e.g. it was skipped just before it ended
+        if (activeItem == null || from != null && from != slots[active]) {
+            return;
+        }
+        PlayerSlot previous = slots[active];
+        if (standbyItem != null) {
+            int standby = 1 - active;
+            slots[standby].play();
+            active = standby;
+            activeItem = standbyItem;
+            standbyItem = null;
+            previous.stop();
+        } else {
+            // The next item could not be prerolled, so it has to be started from scratch in the active slot
+            Item item = playNow((activeItem.index() + 1) % mrls.size());
+            if (item == null) {
+                return;
+            }
+            activeItem = item;
+        }
+        notifyItemChanged(activeItem);
+        prerollNext();
+    }
+
+    /**
+     * Parse the item after the active item, and preroll it in the standby slot.
+     */
+    private void prerollNext() {
+        standbyItem = null;
+        int index = (activeItem.index() + 1) % mrls.size();
+        Media media = parseMedia(mrls.get(index));
+        if (media == null) {
+            return;
+        }
+        MediaRef mediaRef = media.newMediaRef();
+        try {
+            if (slots[1 - active].preroll(mediaRef)) {
+                standbyItem = item(index, mrls.get(index), media);
+            } else {
+                System.err.printf("Failed to preroll %s%n", mrls.get(index));
+            }
+        } finally {
+            mediaRef.release();
+            media.release();
+        }
+    }
+
+    /**
+     * Parse an item and start playing it in the active slot.
+     *
+     * @param index index of the item
+     * @return item, or <code>null</code> if it could not be played
+     */
+    private Item playNow(int index) {
+        Media media = parseMedia(mrls.get(index));
+        if (media == null) {
+            return null;
+        }
+        MediaRef mediaRef = media.newMediaRef();
+        try {
+            if (!slots[active].mediaPlayer().media().play(mediaRef)) {
+                System.err.printf("Failed to play %s%n", mrls.get(index));
+                return null;
+            }
+            return item(index, mrls.get(index), media);
+        } finally {
+            mediaRef.release();
+            media.release();
+        }
+    }
+
+    /**
+     * Create and parse a media, waiting for the parsing to finish.
+     *
+     * @param mrl MRL of the media
+     * @return media, which the caller must release; or <code>null</code> if the media could not be created
+     */
+    private Media parseMedia(String mrl) {
+        Media media = mediaPlayerFactory.media().newMedia(mrl);
+        if (media == null) {
+            System.err.printf("Failed to create media for %s%n", mrl);
+            return null;
+        }
+        CountDownLatch parsed = new CountDownLatch(1);
+        MediaEventAdapter listener = new MediaEventAdapter() {
+            @Override
+            public void mediaParsedChanged(Media media, MediaParsedStatus newStatus) {
+                parsed.countDown();
+            }
+        };
+        media.events().addMediaEventListener(listener);
+        try {
+            if (media.parsing().parse(PARSE_TIMEOUT, ParseFlag.PARSE_LOCAL, ParseFlag.PARSE_NETWORK)) {
+                parsed.await(PARSE_TIMEOUT, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            media.events().removeMediaEventListener(listener);
+        }
+        // Even if parsing failed or timed out, the media may still play
+        return media;
+    }
+
+    private static Item item(int index, String mrl, Media media) {
+        String title = media.meta().get(Meta.TITLE);
+        return new Item(index, mrl, title != null ? title : mrl, media.info().duration());
+    }
+
+    private void notifyItemChanged(Item item) {
+        Consumer<Item> onItemChanged = this.onItemChanged;
+        if (onItemChanged != null) {
+            onItemChanged.accept(item);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+
+import java.util.List;
+
+/**
+ * Plays a list of media without a gap between the items, see {@link GaplessPlaylist}.
+ * <p>
+ * Specify the MRLs to play on the command-line, they are played in order and then repeated. Press "N" to skip to the
+ * next item.
+ */
+public class GaplessPlaylistTest extends Application {
+
+    private MediaPlayerFactory mediaPlayerFactory;
+
+    private GaplessPlaylist playlist;
+
+    private AnimationTimer timer;
+
+    @Override
+    public void start(Stage stage) {
+        List<String> mrls = getParameters().getRaw();
+        if (mrls.isEmpty()) {
+            System.err.println("Specify one or more MRLs to play");
+            Platform.exit();
+            return;
+        }
+
+        mediaPlayerFactory = new MediaPlayerFactory();
+
+        playlist = new GaplessPlaylist(mediaPlayerFactory, mrls, getClass().getSimpleName());
+        playlist.setOnItemChanged(item -> Platform.runLater(() -> stage.setTitle(String.format("vlcj JavaFX gapless playlist - %d/%d: %s", item.index() + 1, mrls.size(), item.title()))));
+
+        VideoView videoView = RenderBackend.CANVAS.createView();
+        videoView.setShowAnimation(false);
+
+        Scene scene = new Scene(videoView.node(), 1280, 720, Color.BLACK);
+        scene.setOnKeyPressed(keyEvent -> {
+            if (keyEvent.getCode() == KeyCode.N) {
+                playlist.next();
+            }
+        });
+
+        stage.setTitle("vlcj JavaFX gapless playlist");
+        stage.setScene(scene);
+        stage.setOnCloseRequest(windowEvent -> Platform.exit());
+        stage.show();
+
+        // At each cut the new slot's first frame is already waiting, so it is presented on the next pulse
+        timer = new SlotPresenter(videoView, playlist::activeSlot);
+        timer.start();
+
+        playlist.start();
+    }
+
+    @Override
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+        if (playlist != null) {
+            playlist.release();
+        }
+        if (mediaPlayerFactory != null) {
+            mediaPlayerFactory.release();
+        }
+    }
+
+    /**
+     * Application entry point.
+     *
+     * @param args MRLs to play, in order
+     */
+    public static void main(String[] args) {
+        Application.launch(args);
+    }
+}
+
+// Launch via this class to avoid module system headaches.
+class GaplessPlaylistTestLauncher {public static void main(String[] args) {GaplessPlaylistTest.main(args);}}
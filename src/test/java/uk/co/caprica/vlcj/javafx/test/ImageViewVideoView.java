@@ -0,0 +1,95 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.geometry.Bounds;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+
+/**
+ * A view that shows the video frame image directly in an ImageView, like the {@link WritableImageDemo}.
+ * <p>
+ * Nothing is ever drawn on the JavaFX application thread, a new frame only swaps the image shown by the ImageView (and
+ * if the same image was updated in place, the pixel buffer update alone is enough for JavaFX to redraw it).
+ * <p>
+ * This view has no overlays of its own, wrap it in a {@link LayeredVideoView} for those.
+ */
+final class ImageViewVideoView implements VideoView {
+
+    private final ImageView imageView = new ImageView();
+
+    private final Pane imagePane;
+
+    ImageViewVideoView() {
+        imageView.setPreserveRatio(true);
+        imageView.setSmooth(true);
+
+        // The image view is centred manually rather than with a StackPane, since a StackPane would take its minimum
+        // size from the image view's fit size and so could never shrink
+        imagePane = new Pane(imageView) {
+            @Override
+            protected void layoutChildren() {
+                double width = getWidth();
+                double height = getHeight();
+                imageView.setFitWidth(width);
+                imageView.setFitHeight(height);
+                Bounds bounds = imageView.getLayoutBounds();
+                imageView.relocate((width - bounds.getWidth()) / 2, (height - bounds.getHeight()) / 2);
+            }
+        };
+        imagePane.setStyle("-fx-background-color: rgb(0, 0, 0);");
+    }
+
+    @Override
+    public Region node() {
+        return imagePane;
+    }
+
+    @Override
+    public boolean renderIfNeeded(Image img, FrameStats stats) {
+        if (img == imageView.getImage()) {
+            stats.renderSkipped();
+            return false;
+        }
+        long renderStart = System.nanoTime();
+        imageView.setImage(img);
+        stats.renderTime(System.nanoTime() - renderStart);
+        return true;
+    }
+
+    @Override
+    public void invalidate() {
+        // The scene graph takes care of repainting
+    }
+
+    @Override
+    public void setShowStats(boolean show) {
+    }
+
+    @Override
+    public void setShowAnimation(boolean show) {
+    }
+
+    @Override
+    public void setSuspended(boolean suspended) {
+    }
+}
@@ -19,52 +19,32 @@
 
 package uk.co.caprica.vlcj.javafx.test;
 
-import javafx.animation.Interpolator;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuBar;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.PixelBuffer;
-import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
-import javafx.scene.image.WritablePixelFormat;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.TextAlignment;
-import javafx.scene.transform.Affine;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
-import javafx.util.Duration;
 import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.media.VideoTrackInfo;
 import uk.co.caprica.vlcj.player.base.MediaPlayer;
 import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
 import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
 import uk.co.caprica.vlcj.player.embedded.videosurface.CallbackVideoSurface;
 import uk.co.caprica.vlcj.player.embedded.videosurface.VideoSurfaceAdapters;
-import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
-import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormatCallback;
-import uk.co.caprica.vlcj.player.embedded.videosurface.callback.RenderCallback;
-import uk.co.caprica.vlcj.player.embedded.videosurface.callback.format.RV32BufferFormat;
 
 import java.io.File;
-import java.nio.ByteBuffer;
 
 import static uk.co.caprica.vlcj.javafx.test.MenuBuilder.createMenu;
 
@@ -76,13 +56,16 @@ import static uk.co.caprica.vlcj.javafx.test.MenuBuilder.createMenu;
 //
 // Some things to be considered:
 //
-//  1. There is no synchronisation - nothing prevents the buffer from being rendered while it is being updated by the
-//     native thread, although in practice this seems to cause no apparent problem
-//  2. The timer should ideally be paused (and later resumed) when playback is paused, stopped, finished or in error,
-//     and also when the application is minimised etc
-//  3. It does not seem to make much difference whether the buffer is marked as updated in the native display callback,
-//     or if you wait until the renderFrame() method (so this is native thread vs timer implementation) - both
-//     approaches work with minimal performance differences
+//  1. The native video buffer is never shared directly with JavaFX any more - each frame is copied into a lock-free
+//     swap chain so the buffer being presented can never be written by the native thread (this was causing tearing
+//     with fast-moving high frame-rate content)
+//  2. The timer is paused (and later resumed) when playback is paused, stopped, finished or in error, and also while
+//     the video can not be seen because the application is minimised or the video view is hidden - see the
+//     PresentationManager
+//  3. The swap chain is only swapped, and the buffer marked as updated, in the renderFrame() method - this must happen
+//     during a pulse so that a buffer still being uploaded by the render thread is not handed back to the native thread
+//     (and a new frame is only swapped in when the presentation scheduler says it is due, given the media frame rate),
+//     anything that is not already running in a pulse (e.g. a resize listener) uses requestFrame() instead
 //  4. The timeline control is not perfect, it has some small issues which would need to be ironed out for a real
 //     application rather than a demo (like clicking and releasing inside the control without touching the slider or
 //     its track-bar can cause a sub-optimal position change)
@@ -104,6 +87,9 @@ import static uk.co.caprica.vlcj.javafx.test.MenuBuilder.createMenu;
  * <p>
  * This approach now, along with JavaFX hardware acceleration, probably outperforms the corresponding implementation
  * that uses Swing/Java2D.
+ * <p>
+ * The video can instead be shown in an ImageView, and the overlays can be retained scene graph layers rather than
+ * being drawn to the canvas, see {@link RenderBackend}.
  */
 public abstract class JavaFXDirectRenderingTest extends Application {
 
@@ -111,15 +97,16 @@ public abstract class JavaFXDirectRenderingTest extends Application {
 
     private static final String STATUS_BACKGROUND_STYLE = "-fx-background-color: rgb(232, 232, 232); -fx-label-padding: 8 8 8 8;";
 
-    private static final Color BLACK = new Color(0, 0, 0,1);
-    private static final Color WHITE = new Color(1,1,1,1);
-    private static final Font FONT = Font.font("Monospace", 40);
-
     /**
      * Mouse pointer will be hidden when over the video surface after this inactivity timeout (milliseconds).
      */
     private static final long MOUSE_TIMEOUT = 3000;
 
+    /**
+     * The render backend used by new instances, chosen at launch.
+     */
+    private static volatile RenderBackend renderBackend = RenderBackend.CANVAS;
+
     /**
      * The vlcj media player factory.
      */
@@ -131,19 +118,24 @@ public abstract class JavaFXDirectRenderingTest extends Application {
     private final EmbeddedMediaPlayer mediaPlayer;
 
     /**
-     * Standard pixel format for the video buffer.
+     * Queue for commands to the media player, so native calls are never made on the JavaFX application thread.
+     */
+    private final MediaPlayerCommands commands;
+
+    /**
+     * Thumbnails of the media, for the timeline preview.
      */
-    private final WritablePixelFormat<ByteBuffer> pixelFormat;
+    private final ThumbnailCache thumbnails;
 
     /**
-     * Lightweight JavaFX canvas, the video is rendered here.
+     * The video frame callbacks and frame handoff to the JavaFX application thread.
      */
-    private final Canvas canvas;
+    private final VideoFrames videoFrames;
 
     /**
-     * Wrapper component for the video surface, to manage resizes properly.
+     * The video surface, the video and overlays are rendered here.
      */
-    private final Pane canvasPane;
+    private final VideoView videoView;
 
     /**
      * Alternate main view when media is not playing.
@@ -178,71 +170,65 @@ public abstract class JavaFXDirectRenderingTest extends Application {
 
     private ControlsPane controlsPane;
 
-    private int bufferWidth;
-
-    private int bufferHeight;
+    private final CursorHandler cursorHandler;
 
     /**
-     *
+     * Renegotiates the video buffer size when the video surface is resized.
      */
-    private PixelBuffer pixelBuffer;
-
-    private WritableImage img;
+    private final DecodeSizeNegotiator decodeSizeNegotiator;
 
-    private Rectangle2D updatedBuffer;
-
-    private boolean showStats = true;
-
-    private boolean showAnimation = true;
-
-    private long start;
-    private long frames;
-    private long maxFrameTime;
-    private long totalFrameTime;
-
-    private final DoubleProperty x  = new SimpleDoubleProperty();
-    private final DoubleProperty y  = new SimpleDoubleProperty();
+    /**
+     * Runs the render timer only while the media is playing and the video can be seen.
+     */
+    private final PresentationManager presentationManager;
 
-    private final DoubleProperty opacity = new SimpleDoubleProperty();
+    /**
+     * Time of the last call to {@link #renderFrame()}, from {@link System#nanoTime()}.
+     */
+    private long lastTick;
 
-    private final CursorHandler cursorHandler;
+    /**
+     * Whether or not a frame should be rendered on the next pulse, see {@link #requestFrame()}.
+     */
+    private boolean frameRequested;
 
     /**
      *
      */
     public JavaFXDirectRenderingTest() {
-        pixelFormat = PixelFormat.getByteBgraPreInstance();
+        videoFrames = new VideoFrames();
+        videoFrames.stats().register(getClass().getSimpleName());
 
         mediaPlayerFactory = new MediaPlayerFactory();
         mediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
 
-        mediaPlayer.events().addMediaPlayerEventListener(new TimerHandler(this));
+        commands = new MediaPlayerCommands("media-player-commands");
+        commands.register(getClass().getSimpleName());
+
+        thumbnails = new ThumbnailCache(mediaPlayerFactory, mediaPlayer);
 
         mediaPlayer.videoSurface().set(new JavaFxVideoSurface());
 
         borderPane = new BorderPane();
         borderPane.setStyle(BLACK_BACKGROUND_STYLE);
 
-        canvas = new Canvas();
-        canvas.setStyle(BLACK_BACKGROUND_STYLE);
+        videoView = renderBackend.createView();
 
-        canvasPane = new Pane();
-        canvasPane.setStyle(BLACK_BACKGROUND_STYLE);
-        canvasPane.getChildren().add(canvas);
+        presentationManager = new PresentationManager(this, videoFrames, videoView);
+        mediaPlayer.events().addMediaPlayerEventListener(new TimerHandler(presentationManager));
 
-        canvas.widthProperty().bind(canvasPane.widthProperty());
-        canvas.heightProperty().bind(canvasPane.heightProperty());
+        decodeSizeNegotiator = new DecodeSizeNegotiator(videoView.node(), mediaPlayer, commands, videoFrames.decodeSize());
 
         // Listen to width/height changes to force the video surface to re-render if the media player is not currently
         // playing - this is necessary to repaint damaged regions because the repaint timer is stopped/paused while the
         // media player is not playing
-        canvas.widthProperty().addListener(event -> {if (!mediaPlayer.status().isPlaying()) renderFrame();});
-        canvas.heightProperty().addListener(event -> {if (!mediaPlayer.status().isPlaying()) renderFrame();});
+        videoView.node().widthProperty().addListener(event -> {if (!mediaPlayer.status().isPlaying()) repaint();});
+        videoView.node().heightProperty().addListener(event -> {if (!mediaPlayer.status().isPlaying()) repaint();});
 
         imageView = new ImageView(new Image(getClass().getResourceAsStream("/vlcj-logo.png")));
 
         stackPane = new StackPane();
-        stackPane.getChildren().addAll(canvasPane, imageView);
+        stackPane.getChildren().addAll(videoView.node(), imageView);
         borderPane.setCenter(stackPane);
 
         Pane statusPane = new Pane();
@@ -254,7 +240,10 @@ public abstract class JavaFXDirectRenderingTest extends Application {
 
         borderPane.setBottom(statusPane);
 
-        controlsPane = new ControlsPane(mediaPlayer);
+        Scrubber scrubber = new Scrubber(mediaPlayer, commands, videoFrames.stats());
+        videoFrames.setOnFrameDelivered(scrubber::frameDelivered);
+
+        controlsPane = new ControlsPane(mediaPlayer, commands, thumbnails, scrubber);
         borderPane.setBottom(controlsPane);
 
         menuBar = createMenu(this);
@@ -281,8 +270,18 @@ public abstract class JavaFXDirectRenderingTest extends Application {
                 showVideo(false);
             }
 
+            @Override
+            public void videoOutput(MediaPlayer mediaPlayer, int newCount) {
+                // The video track information is reliably available by the time the video output has been created, but
+                // the media player must not be called back from one of its own events
+                mediaPlayer.submit(() -> videoFrames.scheduler().setFrameRate(mediaFrameRate(mediaPlayer) * mediaPlayer.status().rate()));
+            }
+
             @Override
             public void playing(MediaPlayer mediaPlayer) {
+                videoFrames.scheduler().resync();
+                // The video surface may have been resized while the media was not playing
+                Platform.runLater(decodeSizeNegotiator::renegotiate);
                 showVideo(true);
                 // Reset the frame stats each time the media is started (otherwise e.g. a pause would mess with the
                 // stats (like FPS)
@@ -290,34 +289,8 @@ public abstract class JavaFXDirectRenderingTest extends Application {
             }
         });
 
-        Timeline timeline = new Timeline(
-            new KeyFrame(Duration.seconds(0),
-                new KeyValue(x, 10, Interpolator.EASE_BOTH),
-                new KeyValue(y, 10)
-            ),
-            new KeyFrame(Duration.seconds(0.5),
-                new KeyValue(x, 70, Interpolator.EASE_BOTH),
-                new KeyValue(y, 10)
-            )
-        );
-        timeline.setAutoReverse(true);
-        timeline.setCycleCount(Timeline.INDEFINITE);
-
-        Timeline timeline2 = new Timeline(
-            new KeyFrame(Duration.seconds(0),
-                new KeyValue(opacity, 0, Interpolator.EASE_BOTH)
-            ),
-            new KeyFrame(Duration.seconds(0.5),
-                new KeyValue(opacity, 1, Interpolator.EASE_BOTH)
-            )
-        );
-        timeline2.setAutoReverse(true);
-        timeline2.setCycleCount(Timeline.INDEFINITE);
-
-        timeline.play();
-        timeline2.play();
 
-        cursorHandler = new CursorHandler(canvas, MOUSE_TIMEOUT);
+        cursorHandler = new CursorHandler(videoView.node(), MOUSE_TIMEOUT);
         cursorHandler.start();
     }
 
@@ -332,12 +305,13 @@ public abstract class JavaFXDirectRenderingTest extends Application {
         stage.setHeight(600);
 
         scene = new Scene(borderPane, Color.BLACK);
+        scene.addPreLayoutPulseListener(this::pulse);
 
         stage.setOnCloseRequest(windowEvent -> System.exit(0));
 
         videoControlsStage = new Stage(StageStyle.UNDECORATED);
         videoControlsStage.setTitle("Video Adjustments");
-        videoControlsStage.setScene(new Scene(new VideoControlsPane(mediaPlayer), Color.BLACK));
+        videoControlsStage.setScene(new Scene(new VideoControlsPane(mediaPlayer, commands), Color.BLACK));
         videoControlsStage.setOnShowing(windowEvent -> {
             videoControlsStage.setX(stage.getX() + stage.getWidth() + 4);
             videoControlsStage.setY(stage.getY());
@@ -349,7 +323,7 @@ public abstract class JavaFXDirectRenderingTest extends Application {
 
         mediaPlayer.controls().setRepeat(true);
 
-        startTimer();
+        presentationManager.watch(stage);
     }
 
     @Override
@@ -357,6 +331,8 @@ public abstract class JavaFXDirectRenderingTest extends Application {
         stopTimer();
 
         mediaPlayer.controls().stop();
+        commands.release();
+        thumbnails.release();
         mediaPlayer.release();
         mediaPlayerFactory.release();
     }
@@ -364,178 +340,133 @@ public abstract class JavaFXDirectRenderingTest extends Application {
     private class JavaFxVideoSurface extends CallbackVideoSurface {
 
         JavaFxVideoSurface() {
-            super(new JavaFxBufferFormatCallback(), new JavaFxRenderCallback(), true, VideoSurfaceAdapters.getVideoSurfaceAdapter());
+            super(videoFrames.bufferFormatCallback(), videoFrames.renderCallback(), true, VideoSurfaceAdapters.getVideoSurfaceAdapter());
         }
 
     }
 
-    private class JavaFxBufferFormatCallback implements BufferFormatCallback {
-        @Override
-        public BufferFormat getBufferFormat(int sourceWidth, int sourceHeight) {
-            bufferWidth = sourceWidth;
-            bufferHeight = sourceHeight;
-
-            // This does not need to be done here, but you could set the video surface size to match the native video
-            // size
-
-            return new RV32BufferFormat(sourceWidth, sourceHeight);
-        }
-
-        @Override
-        public void allocatedBuffers(ByteBuffer[] buffers) {
-            // This is the new magic sauce, the native video buffer is used directly for the image buffer - there is no
-            // full-frame buffer copy here
-            pixelBuffer = new PixelBuffer(bufferWidth, bufferHeight, buffers[0], pixelFormat);
-            img = new WritableImage(pixelBuffer);
-            // Since for every frame the entire buffer will be updated, we can optimise by caching the result here
-            updatedBuffer = new Rectangle2D(0, 0, bufferWidth, bufferHeight);
+    /**
+     * Render a frame on the next pulse.
+     * <p>
+     * Use this, rather than {@link #renderFrame()}, from anything that does not run during a pulse - e.g. a property
+     * listener, {@link Platform#runLater(Runnable)}, or a timer that does not tick on a pulse. Requests made before the
+     * next pulse are coalesced into one frame.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     */
+    protected final void requestFrame() {
+        if (!frameRequested) {
+            frameRequested = true;
+            Platform.requestNextPulse();
         }
+    }
 
+    /**
+     * Redraw the video view on the next pulse, even if there is no new frame.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     */
+    final void repaint() {
+        videoView.invalidate();
+        requestFrame();
     }
 
-    // This is correct as far as it goes, but we need to use one of the timers to get smooth rendering (the timer is
-    // handled by the demo sub-classes)
-    private class JavaFxRenderCallback implements RenderCallback {
-        @Override
-        public void display(MediaPlayer mediaPlayer, ByteBuffer[] nativeBuffers, BufferFormat bufferFormat) {
-            // We only need to tell the pixel buffer which pixels were updated (in this case all of them) - the
-            // pre-cached value is used
-            Platform.runLater(() -> pixelBuffer.updateBuffer(pixBuf -> updatedBuffer));
+    private void pulse() {
+        if (frameRequested) {
+            frameRequested = false;
+            renderFrame();
         }
     }
 
     /**
      * This method is called for each tick of whatever timer implementation has been chosen..
      * <p>
+     * It must only be invoked during a pulse (from a Timeline, AnimationTimer or pulse listener), otherwise use
+     * {@link #requestFrame()}.
+     * <p>
+     * The video view is only actually redrawn if there is a new frame or something else changed, so for e.g. 25 fps
+     * media most ticks of a 60Hz timer do nothing at all (unless the animation overlay is showing, and is drawn to the
+     * canvas).
+     * <p>
      * Needless to say, this method should run as quickly as possible.
      */
     protected final void renderFrame() {
-        frames++;
-
-        long renderStart = System.currentTimeMillis();
-
-        GraphicsContext g = canvas.getGraphicsContext2D();
-
-        double width = canvas.getWidth();
-        double height = canvas.getHeight();
-
-        // The canvas must always be filled with background colour first since the rendered image may actually be
-        // smaller than the full canvas - otherwise we will end up with garbage in the borders on resize
-        g.setFill(new Color(0, 0, 0, 1));
-        g.fillRect(0, 0, width, height);
-
-        if (img != null) {
-            double imageWidth = img.getWidth();
-            double imageHeight = img.getHeight();
-
-            double sx = width / imageWidth;
-            double sy = height / imageHeight;
-
-            double sf = Math.min(sx, sy);
-
-            double scaledW = imageWidth * sf;
-            double scaledH = imageHeight * sf;
-
-            Affine ax = g.getTransform();
-
-            g.translate(
-                (width - scaledW) / 2,
-                (height - scaledH) / 2
-            );
-
-            if (sf != 1.0) {
-                g.scale(sf, sf);
-            }
-
-            // You can do this here if you want, instead of the display() callback, doesn't seem to make much difference
-//            pixelBuffer.updateBuffer(pixBuf -> updatedBuffer);
-
-            g.drawImage(img, 0, 0);
-
-            double fps = (double) 1000 * frames / (renderStart - start);
-            double meanFrameTime = totalFrameTime / (double) frames;
-
-            if (showStats) {
-                String val = String.format(
-                    " Frames: %d\n" +
-                    "Seconds: %d\n" +
-                    "    FPS: %01.1f\n" +
-                    "Maximum: %d ms\n" +
-                    "   Mean: %01.3f ms",
-                    frames, (renderStart - start) / 1000, fps, maxFrameTime, meanFrameTime
-                );
-
-                renderText(g, val, 100, 200);
-            }
-
-            if (showAnimation) {
-                g.setFill(Color.CORNSILK);
-                g.fillOval(
-                    x.doubleValue(),
-                    y.doubleValue(),
-                    40,
-                    40);
-
-                g.save();
-                g.setGlobalAlpha(opacity.doubleValue());
-                g.setTextAlign(TextAlignment.CENTER);
-                renderText(g, "vlcj JavaFX PixelBuffer Win!", img.getWidth() / 2, img.getHeight() - 120);
-                g.restore();
-            }
-
-            g.setTransform(ax);
+        long now = System.nanoTime();
+        FrameEvents.TimerTick tick = new FrameEvents.TimerTick();
+        if (tick.shouldCommit()) {
+            tick.timer = getClass().getSimpleName();
+            tick.interval = lastTick != 0 ? now - lastTick : 0;
+            tick.commit();
         }
-
-        if (renderStart - start > 1000) {
-            long renderTime = System.currentTimeMillis() - renderStart;
-            maxFrameTime = Math.max(maxFrameTime, renderTime);
-            totalFrameTime += renderTime;
+        lastTick = now;
+
+        FrameEvents.RenderFrame event = new FrameEvents.RenderFrame();
+        event.begin();
+        long presented = videoFrames.stats().getFramesPresented();
+        WritableImage img = videoFrames.swapFrame(now);
+        boolean rendered = videoView.renderIfNeeded(img, videoFrames.stats());
+        event.end();
+        if (event.shouldCommit()) {
+            event.presented = videoFrames.stats().getFramesPresented() != presented;
+            event.rendered = rendered;
+            event.commit();
         }
     }
 
+    private void resetStats() {
+        videoFrames.stats().reset();
+    }
+
     /**
-     * A crude, but fast, renderer to draw outlined text.
-     * <p>
-     * Generally the approach here is faster than getting the text outline and stroking it.
+     * Get the nominal frame rate of the current video track.
      *
-     * @param g
-     * @param text
-     * @param x
-     * @param y
+     * @param mediaPlayer media player
+     * @return frame rate, or zero if not known
      */
-    private void renderText(GraphicsContext g, String text, double x, double y) {
-        g.setFont(FONT);
-        g.setFill(BLACK);
-        g.fillText(text, x - 1, y - 1);
-        g.fillText(text, x + 1, y - 1);
-        g.fillText(text, x - 1, y + 1);
-        g.fillText(text, x + 1, y + 1);
-        g.setFill(WHITE);
-        g.fillText(text, x, y);
-    }
-
-    private void resetStats() {
-        start = System.currentTimeMillis();
-        frames = 0;
-        maxFrameTime = 0;
-        totalFrameTime = 0;
+    static double mediaFrameRate(MediaPlayer mediaPlayer) {
+        for (VideoTrackInfo track : mediaPlayer.media().info().videoTracks()) {
+            if (track.frameRate() > 0 && track.frameRateBase() > 0) {
+                return (double) track.frameRate() / track.frameRateBase();
+            }
+        }
+        return 0;
     }
 
     void openFile() {
         File selectedFile = fileChooser.showOpenDialog(stage);
         if (selectedFile != null) {
-            mediaPlayer.media().play(selectedFile.getAbsolutePath());
+            commands.submit("play", () -> mediaPlayer.media().play(selectedFile.getAbsolutePath()));
         }
     }
 
     void adjustVideo(boolean selected) {
         if (selected) {
             videoControlsStage.show();
-            mediaPlayer.video().setAdjustVideo(true);
         } else {
             videoControlsStage.hide();
-            mediaPlayer.video().setAdjustVideo(false);
         }
+        commands.submitLatest("setAdjustVideo", () -> mediaPlayer.video().setAdjustVideo(selected));
+    }
+
+    void toggleDirtyRegions(boolean detect) {
+        videoFrames.setDetectDirtyRegions(detect);
+    }
+
+    void setDecodeHeadroom(double headroom) {
+        decodeSizeNegotiator.setHeadroom(headroom);
+    }
+
+    void setDecodeFormat(DecodeFormat format) {
+        videoFrames.setDecodeFormat(format);
+        decodeSizeNegotiator.restart();
+    }
+
+    void togglePresentationScheduler(boolean enabled) {
+        videoFrames.scheduler().setEnabled(enabled);
+    }
+
+    void toggleFrameMarker(boolean mark) {
+        videoFrames.setMarkFrames(mark);
     }
 
     void toggleAlwaysOnTop() {
@@ -556,11 +487,11 @@ public abstract class JavaFXDirectRenderingTest extends Application {
     }
 
     void toggleStatsOverlay(boolean show) {
-        showStats = show;
+        videoView.setShowStats(show);
     }
 
     void toggleAnimationOverlay(boolean show) {
-        showAnimation = show;
+        videoView.setShowAnimation(show);
     }
 
     void showAbout() {
@@ -578,13 +509,30 @@ public abstract class JavaFXDirectRenderingTest extends Application {
         alert.showAndWait();
     }
 
+    /**
+     * Set the render backend to use for the video surface of new instances.
+     *
+     * @param backend render backend
+     */
+    static void setRenderBackend(RenderBackend backend) {
+        renderBackend = backend;
+    }
+
+    FrameStats stats() {
+        return videoFrames.stats();
+    }
+
+    MediaPlayerCommands commands() {
+        return commands;
+    }
+
     MediaPlayer mediaPlayer() {
         return mediaPlayer;
     }
 
     private void showVideo(boolean show) {
         Platform.runLater(() -> {
-            canvasPane.setVisible(show);
+            videoView.node().setVisible(show);
             imageView.setVisible(!show);
         });
     }
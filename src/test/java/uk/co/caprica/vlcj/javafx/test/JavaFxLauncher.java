@@ -28,6 +28,11 @@ public class JavaFxLauncher {
      * Specify the type of timer to use via the command-line.
      * <p>
      * By default the "Timeline" timer will be used, which empirically seems to perform slightly better than the others.
+     * <p>
+     * Run the <code>TimerJitterBenchmark</code> to compare the timers on a particular machine.
+     * <p>
+     * The render backend can be given as the second argument, "canvas" (the default), "imageview" or "layers" - the
+     * frame statistics are the same for each, so they can be compared directly, e.g. "nano layers".
      *
      * @param args command-line arguments
      */
@@ -48,7 +53,12 @@ public class JavaFxLauncher {
             }
         }
 
+        RenderBackend renderBackend = args.length > 1 ? RenderBackend.fromName(args[1]) : RenderBackend.CANVAS;
+
         System.err.printf("Using timer implementation: %s%n", timerType);
+        System.err.printf("Using render backend: %s%n", renderBackend);
+
+        JavaFXDirectRenderingTest.setRenderBackend(renderBackend);
 
         // The implementations differ only in which type of timer solution is used to render the video
         switch (timerType) {
@@ -0,0 +1,128 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of nanosecond durations, with HDR-style log-linear buckets.
+ * <p>
+ * Values below 64 get a bucket each, above that each power of two range is split into 32 linear buckets - so any
+ * recorded value is reported to within about 3% of its true value, from nanoseconds up to hours, with a single
+ * preallocated array of counts. Recording a value never allocates.
+ * <p>
+ * Values should be recorded by a single thread. Reading from another thread (e.g. via JMX) is allowed, but the values
+ * read may be slightly inconsistent with each other.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+    private static final int BUCKET_COUNT = 64 - SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[SUB_BUCKET_COUNT + BUCKET_COUNT * SUB_BUCKET_HALF];
+
+    private long totalCount;
+
+    private long max;
+
+    private long sum;
+
+    /**
+     * Record a value.
+     *
+     * @param value value, in nanoseconds - negative values are recorded as zero
+     */
+    void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[index(value)]++;
+        totalCount++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        max = 0;
+        sum = 0;
+    }
+
+    long count() {
+        return totalCount;
+    }
+
+    long max() {
+        return max;
+    }
+
+    double mean() {
+        return totalCount > 0 ? (double) sum / totalCount : 0;
+    }
+
+    /**
+     * Get the value at a percentile.
+     *
+     * @param percentile percentile, from 0 to 100
+     * @return value at the percentile (the upper bound of its bucket, limited to the maximum recorded value)
+     */
+    long percentile(double percentile) {
+        long total = totalCount;
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int bucket = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> bucket);
+        return SUB_BUCKET_COUNT + (bucket - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int bucket = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
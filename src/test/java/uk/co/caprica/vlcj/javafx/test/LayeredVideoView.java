@@ -0,0 +1,87 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.scene.image.Image;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+
+/**
+ * A view that shows the video with another view, and the overlays as {@link OverlayLayers} on top of it.
+ * <p>
+ * The video view only ever draws the video frame, so when there is no new frame there is nothing at all to redraw on
+ * the JavaFX application thread, even with the animation overlay showing.
+ */
+final class LayeredVideoView implements VideoView {
+
+    private final VideoView video;
+
+    private final OverlayLayers overlays;
+
+    private final StackPane stackPane;
+
+    /**
+     * Create a layered view.
+     *
+     * @param video view to show the video frames, its own overlays are switched off
+     * @param animation animation for the animation overlay, shared with the video view if it has one
+     */
+    LayeredVideoView(VideoView video, OverlayAnimation animation) {
+        this.video = video;
+        this.overlays = new OverlayLayers(animation);
+
+        video.setShowStats(false);
+        video.setShowAnimation(false);
+
+        stackPane = new StackPane(video.node(), overlays.node());
+    }
+
+    @Override
+    public Region node() {
+        return stackPane;
+    }
+
+    @Override
+    public boolean renderIfNeeded(Image img, FrameStats stats) {
+        overlays.update(stats, System.nanoTime());
+        return video.renderIfNeeded(img, stats);
+    }
+
+    @Override
+    public void invalidate() {
+        video.invalidate();
+    }
+
+    @Override
+    public void setShowStats(boolean show) {
+        overlays.setShowStats(show);
+    }
+
+    @Override
+    public void setShowAnimation(boolean show) {
+        overlays.setShowAnimation(show);
+    }
+
+    @Override
+    public void setSuspended(boolean suspended) {
+        video.setSuspended(suspended);
+        overlays.setSuspended(suspended);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single-threaded queue of commands for a media player, so that native calls never run on the JavaFX application
+ * thread.
+ * <p>
+ * Commands are executed one at a time, in the order they were submitted. A command can instead be submitted as the
+ * latest of its kind (e.g. "set hue" while dragging a slider) - if a command of the same kind is still waiting to be
+ * executed, it is replaced, so the last value wins and keeps the place in the queue of the one it replaced.
+ * <p>
+ * Every command is timed, and any command that takes longer than {@link #SLOW_COMMAND} is counted as slow. The
+ * statistics can be registered with the platform MBean server, to monitor them via JMX.
+ */
+final class MediaPlayerCommands implements MediaPlayerCommandsMXBean {
+
+    /**
+     * Commands taking longer than this, in nanoseconds, are counted as slow.
+     */
+    private static final long SLOW_COMMAND = 50000000L;
+
+    /**
+     * Maximum time to wait for the command being executed to finish when the queue is released, in milliseconds.
+     */
+    private static final long RELEASE_TIMEOUT = 5000;
+
+    /**
+     * Waiting commands, keyed by kind for coalesced commands, or by a unique key otherwise - guarded by this.
+     */
+    private final LinkedHashMap<Object, Command> queue = new LinkedHashMap<>();
+
+    private final Thread thread;
+
+    private final AtomicLong submitted = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private volatile long executed;
+
+    private volatile long slowCommands;
+
+    private final LatencyHistogram commandTime = new LatencyHistogram();
+
+    private volatile String slowestCommand = "";
+
+    private volatile long slowestCommandTime;
+
+    private volatile boolean resetRequested;
+
+    private boolean running = true;
+
+    /**
+     * Create a command queue.
+     *
+     * @param name name for the command thread
+     */
+    MediaPlayerCommands(String name) {
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Register these statistics with the platform MBean server.
+     *
+     * @param name name to distinguish these statistics from those of any other media player
+     */
+    void register(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("uk.co.caprica.vlcj.javafx:type=MediaPlayerCommands,name=" + name));
+        } catch (JMException e) {
+            e.printStackTrace(System.err);
+        }
+    }
+
+    /**
+     * Submit a command, to be executed after every command submitted before it.
+     *
+     * @param name name of the command, for reporting
+     * @param command command
+     */
+    void submit(String name, Runnable command) {
+        enqueue(new Object(), name, command);
+    }
+
+    /**
+     * Submit a command, replacing any command of the same kind that has not been executed yet.
+     *
+     * @param name name of the command, commands with the same name are of the same kind
+     * @param command command
+     */
+    void submitLatest(String name, Runnable command) {
+        enqueue(name, name, command);
+    }
+
+    /**
+     * Submit a command, replacing any command of the same kind that has not been executed yet.
+     * <p>
+     * This is for a queue shared by several media players, where commands with the same name for different media
+     * players are of different kinds.
+     *
+     * @param kind kind of command, compared by equality
+     * @param name name of the command, for reporting
+     * @param command command
+     */
+    void submitLatest(Object kind, String name, Runnable command) {
+        enqueue(kind, name, command);
+    }
+
+    /**
+     * Stop executing commands, any commands still waiting are discarded.
+     * <p>
+     * This waits for the command being executed, if any, to finish - but not forever, a native call that never returns
+     * must not stop the application from exiting.
+     */
+    void release() {
+        synchronized (this) {
+            running = false;
+            queue.clear();
+            notifyAll();
+        }
+        try {
+            thread.join(RELEASE_TIMEOUT);
+            if (thread.isAlive()) {
+                System.err.printf("Media player command thread \"%s\" did not finish within %d ms%n", thread.getName(), RELEASE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void enqueue(Object key, String name, Runnable command) {
+        submitted.incrementAndGet();
+        if (queue.put(key, new Command(name, command)) != null) {
+            coalesced.incrementAndGet();
+        }
+        notifyAll();
+    }
+
+    private void run() {
+        while (true) {
+            Command command;
+            synchronized (this) {
+                while (running && queue.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                Iterator<Map.Entry<Object, Command>> first = queue.entrySet().iterator();
+                command = first.next().getValue();
+                first.remove();
+            }
+            execute(command);
+        }
+    }
+
+    private void execute(Command command) {
+        if (resetRequested) {
+            resetRequested = false;
+            commandTime.reset();
+            executed = 0;
+            slowCommands = 0;
+            slowestCommand = "";
+            slowestCommandTime = 0;
+        }
+        long start = System.nanoTime();
+        try {
+            command.command.run();
+        } catch (RuntimeException e) {
+            e.printStackTrace(System.err);
+        }
+        long duration = System.nanoTime() - start;
+        commandTime.record(duration);
+        executed++;
+        if (duration > slowestCommandTime) {
+            slowestCommandTime = duration;
+            slowestCommand = command.name;
+        }
+        if (duration > SLOW_COMMAND) {
+            slowCommands++;
+        }
+    }
+
+    @Override
+    public long getCommandsSubmitted() {
+        return submitted.get();
+    }
+
+    @Override
+    public long getCommandsCoalesced() {
+        return coalesced.get();
+    }
+
+    @Override
+    public long getCommandsExecuted() {
+        return executed;
+    }
+
+    @Override
+    public long getSlowCommands() {
+        return slowCommands;
+    }
+
+    @Override
+    public synchronized int getQueueLength() {
+        return queue.size();
+    }
+
+    @Override
+    public long getCommandTimeP50() {
+        return commandTime.percentile(50);
+    }
+
+    @Override
+    public long getCommandTimeP99() {
+        return commandTime.percentile(99);
+    }
+
+    @Override
+    public long getCommandTimeMax() {
+        return commandTime.max();
+    }
+
+    @Override
+    public String getSlowestCommand() {
+        return slowestCommand;
+    }
+
+    /**
+     * Reset the statistics.
+     * <p>
+     * May be invoked from any thread, the timings are reset by the command thread before it executes the next command.
+     */
+    @Override
+    public void reset() {
+        submitted.set(0);
+        coalesced.set(0);
+        resetRequested = true;
+    }
+
+    private static final class Command {
+
+        private final String name;
+
+        private final Runnable command;
+
+        private Command(String name, Runnable command) {
+            this.name = name;
+            this.command = command;
+        }
+    }
+}
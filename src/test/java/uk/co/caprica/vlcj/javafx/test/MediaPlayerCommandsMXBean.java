@@ -0,0 +1,48 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+/**
+ * Management interface for the media player command statistics, see {@link MediaPlayerCommands}.
+ * <p>
+ * All durations are in nanoseconds.
+ */
+public interface MediaPlayerCommandsMXBean {
+
+    long getCommandsSubmitted();
+
+    long getCommandsCoalesced();
+
+    long getCommandsExecuted();
+
+    long getSlowCommands();
+
+    int getQueueLength();
+
+    long getCommandTimeP50();
+
+    long getCommandTimeP99();
+
+    long getCommandTimeMax();
+
+    String getSlowestCommand();
+
+    void reset();
+}
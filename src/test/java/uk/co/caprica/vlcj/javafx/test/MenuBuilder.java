@@ -23,7 +23,9 @@ import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.RadioMenuItem;
 import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.ToggleGroup;
 import javafx.scene.input.KeyCombination;
 import uk.co.caprica.vlcj.player.base.MediaPlayer;
 
@@ -41,6 +43,7 @@ final class MenuBuilder {
      */
     static MenuBar createMenu(JavaFXDirectRenderingTest application) {
         MediaPlayer mediaPlayer = application.mediaPlayer();
+        MediaPlayerCommands commands = application.commands();
 
         MenuBar menuBar = new MenuBar();
 
@@ -108,7 +111,39 @@ final class MenuBuilder {
         CheckMenuItem toolsVideoAdjustmentMenuItem = new CheckMenuItem("Adjust _Video");
         toolsVideoAdjustmentMenuItem.setMnemonicParsing(true);
 
+        CheckMenuItem toolsDirtyRegionsMenuItem = new CheckMenuItem("Detect _Dirty Regions");
+        toolsDirtyRegionsMenuItem.setMnemonicParsing(true);
+
+        CheckMenuItem toolsPresentationSchedulerMenuItem = new CheckMenuItem("Media-Clock _Presentation");
+        toolsPresentationSchedulerMenuItem.setMnemonicParsing(true);
+        toolsPresentationSchedulerMenuItem.setSelected(true);
+
+        CheckMenuItem toolsFrameMarkerMenuItem = new CheckMenuItem("Frame _Marker");
+        toolsFrameMarkerMenuItem.setMnemonicParsing(true);
+
+        Menu toolsDecodeResolutionMenu = new Menu("Decode _Resolution");
+        toolsDecodeResolutionMenu.setMnemonicParsing(true);
+
+        ToggleGroup decodeResolutionGroup = new ToggleGroup();
+        addDecodeResolutionMenuItem(application, toolsDecodeResolutionMenu, decodeResolutionGroup, "_Source", 0);
+        addDecodeResolutionMenuItem(application, toolsDecodeResolutionMenu, decodeResolutionGroup, "_Window", 1);
+        addDecodeResolutionMenuItem(application, toolsDecodeResolutionMenu, decodeResolutionGroup, "Window +_25%", DecodeSize.DEFAULT_HEADROOM);
+        addDecodeResolutionMenuItem(application, toolsDecodeResolutionMenu, decodeResolutionGroup, "Window x_2", 2);
+
+        Menu toolsDecodeFormatMenu = new Menu("Decode _Format");
+        toolsDecodeFormatMenu.setMnemonicParsing(true);
+
+        ToggleGroup decodeFormatGroup = new ToggleGroup();
+        addDecodeFormatMenuItem(application, toolsDecodeFormatMenu, decodeFormatGroup, "_RV32 (LibVLC converts)", DecodeFormat.RV32);
+        addDecodeFormatMenuItem(application, toolsDecodeFormatMenu, decodeFormatGroup, "_I420", DecodeFormat.I420);
+        addDecodeFormatMenuItem(application, toolsDecodeFormatMenu, decodeFormatGroup, "_NV12", DecodeFormat.NV12);
+
         toolsMenu.getItems().add(toolsVideoAdjustmentMenuItem);
+        toolsMenu.getItems().add(toolsDirtyRegionsMenuItem);
+        toolsMenu.getItems().add(toolsPresentationSchedulerMenuItem);
+        toolsMenu.getItems().add(toolsFrameMarkerMenuItem);
+        toolsMenu.getItems().add(toolsDecodeResolutionMenu);
+        toolsMenu.getItems().add(toolsDecodeFormatMenu);
 
         menuBar.getMenus().add(toolsMenu);
 
@@ -159,15 +194,22 @@ final class MenuBuilder {
         mediaQuitMenuItem.setOnAction(actionEvent -> System.exit(0));
         mediaOpenFileMenuItem.setOnAction(actionEvent -> application.openFile());
 
-        playbackJumpForwardMenuItem.setOnAction(actionEvent -> mediaPlayer.controls().skipTime(10000));
-        playbackJumpBackwardMenuItem.setOnAction(actionEvent -> mediaPlayer.controls().skipTime(-10000));
-        playbackPlayMenuItem.setOnAction(actionEvent -> mediaPlayer.controls().play());
-        playbackPauseMenuItem.setOnAction(actionEvent -> mediaPlayer.controls().setPause(true));
-        playbackStopMenuItem.setOnAction(actionEvent -> mediaPlayer.controls().stop());
+        // Skips are relative, so they must never be coalesced
+        playbackJumpForwardMenuItem.setOnAction(actionEvent -> commands.submit("skipTime", () -> mediaPlayer.controls().skipTime(10000)));
+        playbackJumpBackwardMenuItem.setOnAction(actionEvent -> commands.submit("skipTime", () -> mediaPlayer.controls().skipTime(-10000)));
+        playbackPlayMenuItem.setOnAction(actionEvent -> commands.submit("play", () -> mediaPlayer.controls().play()));
+        playbackPauseMenuItem.setOnAction(actionEvent -> commands.submit("setPause", () -> mediaPlayer.controls().setPause(true)));
+        playbackStopMenuItem.setOnAction(actionEvent -> commands.submit("stop", () -> mediaPlayer.controls().stop()));
 
-        audioMuteMenuItem.setOnAction(actionEvent -> mediaPlayer.audio().setMute(audioMuteMenuItem.isSelected()));
+        audioMuteMenuItem.setOnAction(actionEvent -> {
+            boolean mute = audioMuteMenuItem.isSelected();
+            commands.submitLatest("setMute", () -> mediaPlayer.audio().setMute(mute));
+        });
 
         toolsVideoAdjustmentMenuItem.setOnAction(actionEvent -> application.adjustVideo(toolsVideoAdjustmentMenuItem.isSelected()));
+        toolsDirtyRegionsMenuItem.setOnAction(actionEvent -> application.toggleDirtyRegions(toolsDirtyRegionsMenuItem.isSelected()));
+        toolsPresentationSchedulerMenuItem.setOnAction(actionEvent -> application.togglePresentationScheduler(toolsPresentationSchedulerMenuItem.isSelected()));
+        toolsFrameMarkerMenuItem.setOnAction(actionEvent -> application.toggleFrameMarker(toolsFrameMarkerMenuItem.isSelected()));
 
         viewAlwaysOnTopMenuItem.setOnAction(actionEvent -> application.toggleAlwaysOnTop());
         viewMinimalInterfaceMenuItem.setOnAction(actionEvent -> application.toggleMinimalInterface(!viewMinimalInterfaceMenuItem.isSelected()));
@@ -180,5 +222,22 @@ final class MenuBuilder {
         return menuBar;
     }
 
+    private static void addDecodeResolutionMenuItem(JavaFXDirectRenderingTest application, Menu menu, ToggleGroup group, String text, double headroom) {
+        RadioMenuItem menuItem = new RadioMenuItem(text);
+        menuItem.setMnemonicParsing(true);
+        menuItem.setToggleGroup(group);
+        menuItem.setSelected(headroom == DecodeSize.DEFAULT_HEADROOM);
+        menuItem.setOnAction(actionEvent -> application.setDecodeHeadroom(headroom));
+        menu.getItems().add(menuItem);
+    }
+
+    private static void addDecodeFormatMenuItem(JavaFXDirectRenderingTest application, Menu menu, ToggleGroup group, String text, DecodeFormat format) {
+        RadioMenuItem menuItem = new RadioMenuItem(text);
+        menuItem.setMnemonicParsing(true);
+        menuItem.setToggleGroup(group);
+        menuItem.setSelected(format == DecodeFormat.RV32);
+        menuItem.setOnAction(actionEvent -> application.setDecodeFormat(format));
+        menu.getItems().add(menuItem);
+    }
 
 }
@@ -19,23 +19,50 @@
 
 package uk.co.caprica.vlcj.javafx.test;
 
-import javafx.concurrent.ScheduledService;
-import javafx.concurrent.Task;
-import javafx.util.Duration;
+import javafx.application.Platform;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- *
- *
+ * A high-precision timer that invokes {@link #onSucceeded()} on the JavaFX application thread at a fixed period.
+ * <p>
+ * Ticks are paced by a dedicated thread against an absolute deadline, so errors do not accumulate - the thread parks
+ * until shortly before each deadline and then spins for the remainder, since parking alone can overshoot by anything
+ * from tens of microseconds to a millisecond or more depending on the platform. If a deadline is missed by more than a
+ * whole period (e.g. the machine was suspended) the schedule restarts from now rather than firing a burst of ticks.
+ * <p>
+ * Nothing is allocated per tick by the timer itself. Each tick is handed to the JavaFX application thread with the same
+ * {@link Runnable}, and only if the previous tick has already run - if the JavaFX application thread falls behind,
+ * ticks are coalesced rather than queued.
+ * <p>
+ * The pacing thread is created when the timer is first started and lives as long as the timer, it parks indefinitely
+ * while the timer is cancelled - so pausing and resuming the timer never creates new threads.
+ * <p>
+ * The lateness of each wake-up, compared with its deadline, is recorded in a jitter histogram.
+ * <p>
  * Originally contributed by Jason Pollastrini, with changes.
  */
-public abstract class NanoTimer extends ScheduledService<Void> {
+public abstract class NanoTimer {
+
+    private static final long ONE_NANO = 1000000000L;
+
+    /**
+     * Spin, rather than park, for the final part of each period, in nanoseconds.
+     */
+    private static final long SPIN_THRESHOLD = 500000L;
+
+    private final long period;
+
+    private final AtomicBoolean pending = new AtomicBoolean();
 
-    private final long ONE_NANO = 1000000000L;
+    private final Runnable tick = this::tick;
 
-    private final double ONE_NANO_INV = 1f / 1000000000L;
+    private final LatencyHistogram jitter = new LatencyHistogram();
+
+    private volatile boolean running;
+
+    private Thread thread;
 
     private long startTime;
 
@@ -45,10 +72,13 @@ public abstract class NanoTimer extends ScheduledService<Void> {
 
     private double deltaTime;
 
+    /**
+     * Create a timer.
+     *
+     * @param period period, in milliseconds
+     */
     public NanoTimer(double period) {
-        super();
-        this.setPeriod(Duration.millis(period));
-        this.setExecutor(Executors.newCachedThreadPool(new NanoThreadFactory()));
+        this.period = Math.round(period * 1000000);
     }
 
     public final long getTime() {
@@ -56,7 +86,7 @@ public abstract class NanoTimer extends ScheduledService<Void> {
     }
 
     public final double getTimeAsSeconds() {
-        return getTime() * ONE_NANO_INV;
+        return getTime() / (double) ONE_NANO;
     }
 
     public final double getDeltaTime() {
@@ -67,57 +97,135 @@ public abstract class NanoTimer extends ScheduledService<Void> {
         return frameRate;
     }
 
-    @Override
-    public final void start() {
-        super.start();
+    /**
+     * Get the median wake-up lateness of the pacing thread.
+     *
+     * @return jitter, in nanoseconds
+     */
+    public final long getJitterP50() {
+        return jitter.percentile(50);
+    }
+
+    /**
+     * Get the 99th percentile wake-up lateness of the pacing thread.
+     *
+     * @return jitter, in nanoseconds
+     */
+    public final long getJitterP99() {
+        return jitter.percentile(99);
+    }
+
+    /**
+     * Get the maximum wake-up lateness of the pacing thread.
+     *
+     * @return jitter, in nanoseconds
+     */
+    public final long getJitterMax() {
+        return jitter.max();
+    }
+
+    /**
+     * Get the histogram of the wake-up lateness of the pacing thread.
+     * <p>
+     * The histogram is recorded by the pacing thread, it may be read from any thread.
+     *
+     * @return jitter histogram
+     */
+    final LatencyHistogram jitterHistogram() {
+        return jitter;
+    }
+
+    public final synchronized boolean isRunning() {
+        return running;
+    }
+
+    public final synchronized void start() {
+        if (running) {
+            return;
+        }
         if (startTime <= 0) {
             startTime = System.nanoTime();
         }
+        running = true;
+        if (thread == null) {
+            thread = new Thread(this::pace, "NanoTimerThread");
+            thread.setPriority(Thread.NORM_PRIORITY + 1);
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            LockSupport.unpark(thread);
+        }
     }
 
-    @Override
-    public final void reset() {
-        super.reset();
-        startTime = System.nanoTime();
-        previousTime = getTime();
-    }
-
-    @Override
-    protected final Task<Void> createTask() {
-        return new Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-                updateTimer();
-                return null;
-            }
-        };
+    public final synchronized void cancel() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
     }
 
-    private void updateTimer() {
-        deltaTime = (getTime() - previousTime) * (1.0f / ONE_NANO);
-        frameRate = 1.0f / deltaTime;
-        previousTime = getTime();
+    /**
+     * Reset the timer, and its jitter histogram.
+     * <p>
+     * Must only be invoked when the timer is not running.
+     */
+    public final synchronized void reset() {
+        if (running) {
+            throw new IllegalStateException("Timer is running");
+        }
+        startTime = System.nanoTime();
+        previousTime = 0;
+        jitter.reset();
     }
 
-    @Override
-    protected final void succeeded() {
-        super.succeeded();
-        onSucceeded();
+    private void pace() {
+        while (true) {
+            while (!running) {
+                LockSupport.park(this);
+            }
+            pace(System.nanoTime() + period);
+        }
     }
 
-    @Override
-    protected final void failed() {
-        getException().printStackTrace(System.err);
-        onFailed();
+    private void pace(long deadline) {
+        while (running) {
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > SPIN_THRESHOLD && running) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD);
+            }
+            while (System.nanoTime() < deadline && running) {
+                Thread.onSpinWait();
+            }
+            if (!running) {
+                break;
+            }
+            long now = System.nanoTime();
+            jitter.record(now - deadline);
+            if (pending.compareAndSet(false, true)) {
+                Platform.runLater(tick);
+            }
+            deadline += period;
+            if (now - deadline > period) {
+                deadline = now + period;
+            }
+        }
     }
 
-    private class NanoThreadFactory implements ThreadFactory {
-        @Override
-        public Thread newThread(Runnable runnable) {
-            Thread thread = new Thread(runnable, "NanoTimerThread");
-            thread.setPriority(Thread.NORM_PRIORITY + 1);
-            thread.setDaemon(true);
-            return thread;
+    private void tick() {
+        pending.set(false);
+        if (!running) {
+            return;
+        }
+        long time = getTime();
+        deltaTime = (time - previousTime) / (double) ONE_NANO;
+        frameRate = 1.0 / deltaTime;
+        previousTime = time;
+        try {
+            onSucceeded();
+        } catch (RuntimeException e) {
+            e.printStackTrace(System.err);
+            onFailed();
         }
     }
 
@@ -26,11 +26,18 @@ import javafx.application.Platform;
  * Implementation of a JavaFX direct rendering media player that uses the {@link NanoTimer}.
  * <p>
  * In principle, this should be better performing than the corresponding JavaFX Timeline example.
+ * <p>
+ * The timer does not tick during a pulse, so each tick requests a frame to be rendered on the next pulse instead (the
+ * swap chain must only be swapped during a pulse).
+ * <p>
+ * The timer's wake-up jitter is published with the frame statistics, see the "TimerJitter" attributes of the
+ * {@link FrameStats} MBean.
  */
 public final class NanoTimerJavaFXDirectRenderingTest extends JavaFXDirectRenderingTest {
 
     /**
-     *
+     * Rate at which the timer checks for a new frame - this is not the video frame rate, the presentation scheduler
+     * decides which tick each frame is presented on, so this only needs to match the display refresh rate.
      */
     private static final double FPS = 60.0;
 
@@ -40,10 +47,14 @@ public final class NanoTimerJavaFXDirectRenderingTest extends JavaFXDirectRender
     private final NanoTimer nanoTimer = new NanoTimer(1000.0 / FPS) {
         @Override
         protected void onSucceeded() {
-            renderFrame();
+            requestFrame();
         }
     };
 
+    public NanoTimerJavaFXDirectRenderingTest() {
+        stats().setTimerJitter(nanoTimer.jitterHistogram());
+    }
+
     @Override
     protected void startTimer() {
         Platform.runLater(() -> {
@@ -0,0 +1,137 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.Interpolator;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.util.Duration;
+
+/**
+ * The animated values for the animation overlay - a ball moving from side to side, and a title fading in and out.
+ * <p>
+ * The same animation is used whether the overlay is drawn to a canvas or is a layer in the scene graph, and one instance
+ * may be shared by several views. The animation only runs while at least one of them is showing it and it is not paused,
+ * an idle animation timeline would otherwise keep the JavaFX pulse running even with nothing to animate.
+ * <p>
+ * Must only be used on the JavaFX application thread.
+ */
+final class OverlayAnimation {
+
+    private final DoubleProperty x  = new SimpleDoubleProperty();
+    private final DoubleProperty y  = new SimpleDoubleProperty();
+
+    private final DoubleProperty opacity = new SimpleDoubleProperty();
+
+    private final Timeline timeline;
+
+    private final Timeline timeline2;
+
+    /**
+     * Number of views currently showing the animation.
+     */
+    private int shown;
+
+    private boolean paused;
+
+    OverlayAnimation() {
+        timeline = new Timeline(
+            new KeyFrame(Duration.seconds(0),
+                new KeyValue(x, 10, Interpolator.EASE_BOTH),
+                new KeyValue(y, 10)
+            ),
+            new KeyFrame(Duration.seconds(0.5),
+                new KeyValue(x, 70, Interpolator.EASE_BOTH),
+                new KeyValue(y, 10)
+            )
+        );
+        timeline.setAutoReverse(true);
+        timeline.setCycleCount(Timeline.INDEFINITE);
+
+        timeline2 = new Timeline(
+            new KeyFrame(Duration.seconds(0),
+                new KeyValue(opacity, 0, Interpolator.EASE_BOTH)
+            ),
+            new KeyFrame(Duration.seconds(0.5),
+                new KeyValue(opacity, 1, Interpolator.EASE_BOTH)
+            )
+        );
+        timeline2.setAutoReverse(true);
+        timeline2.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    /**
+     * A view started showing the animation.
+     */
+    void show() {
+        shown++;
+        update();
+    }
+
+    /**
+     * A view stopped showing the animation.
+     */
+    void hide() {
+        shown--;
+        update();
+    }
+
+    /**
+     * Pause the animation, e.g. while the views showing it cannot be seen.
+     */
+    void pause() {
+        paused = true;
+        update();
+    }
+
+    /**
+     * Resume the animation after {@link #pause()}.
+     */
+    void play() {
+        paused = false;
+        update();
+    }
+
+    private void update() {
+        if (shown > 0 && !paused) {
+            timeline.play();
+            timeline2.play();
+        } else {
+            timeline.pause();
+            timeline2.pause();
+        }
+    }
+
+    ReadOnlyDoubleProperty xProperty() {
+        return x;
+    }
+
+    ReadOnlyDoubleProperty yProperty() {
+        return y;
+    }
+
+    ReadOnlyDoubleProperty opacityProperty() {
+        return opacity;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.geometry.VPos;
+import javafx.scene.CacheHint;
+import javafx.scene.Group;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.StrokeType;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * The statistics and animation overlays as retained scene graph layers, for use on top of a video view.
+ * <p>
+ * Unlike the {@link VideoRenderer}, nothing is drawn again on each tick. Each overlay node is cached as a bitmap, the
+ * statistics text is re-rasterised only when it changes, and the moving ball and the fading title are cached with a
+ * speed hint, so animating their position and opacity just redraws the cached bitmap.
+ * <p>
+ * The overlay layers are unmanaged, so changing the text never causes a layout pass.
+ * <p>
+ * Must only be used on the JavaFX application thread.
+ */
+final class OverlayLayers {
+
+    private static final Font FONT = Font.font("Monospace", 20);
+
+    private static final String TITLE = "vlcj JavaFX PixelBuffer Win!";
+
+    private static final double STATS_X = 50;
+    private static final double STATS_Y = 100;
+
+    private static final double TITLE_BOTTOM = 60;
+
+    private static final double BALL_RADIUS = 20;
+
+    private final OverlayAnimation animation;
+
+    private final Text statsText = outlinedText("");
+
+    private final Group statsLayer = new Group(statsText);
+
+    private final Circle ball = new Circle(BALL_RADIUS, Color.CORNSILK);
+
+    private final Text title = outlinedText(TITLE);
+
+    private final Group animationLayer = new Group(ball, title);
+
+    private final Pane layers = new Pane(statsLayer, animationLayer);
+
+    private boolean showStats = true;
+
+    private boolean showAnimation = true;
+
+    private long statsUpdated = Long.MIN_VALUE;
+
+    /**
+     * Create the overlay layers.
+     *
+     * @param animation animation for the animation overlay, may be shared with other views
+     */
+    OverlayLayers(OverlayAnimation animation) {
+        this.animation = animation;
+
+        animation.show();
+
+        layers.setMouseTransparent(true);
+        layers.setPickOnBounds(false);
+
+        // The layers are positioned at the origin of the view, the overlay nodes are positioned within them
+        statsLayer.setManaged(false);
+        animationLayer.setManaged(false);
+
+        statsText.relocate(STATS_X, STATS_Y);
+        statsText.setCache(true);
+
+        ball.setCenterX(BALL_RADIUS);
+        ball.setCenterY(BALL_RADIUS);
+        ball.translateXProperty().bind(animation.xProperty());
+        ball.translateYProperty().bind(animation.yProperty());
+        ball.setCache(true);
+        ball.setCacheHint(CacheHint.SPEED);
+
+        title.setTextOrigin(VPos.BOTTOM);
+        title.layoutXProperty().bind(layers.widthProperty().subtract(title.getLayoutBounds().getWidth()).divide(2));
+        title.layoutYProperty().bind(layers.heightProperty().subtract(TITLE_BOTTOM));
+        title.opacityProperty().bind(animation.opacityProperty());
+        title.setCache(true);
+        title.setCacheHint(CacheHint.SPEED);
+    }
+
+    Region node() {
+        return layers;
+    }
+
+    /**
+     * Update the statistics overlay, if it is showing and it is due.
+     *
+     * @param stats frame statistics
+     * @param now current time, from {@link System#nanoTime()}
+     */
+    void update(FrameStats stats, long now) {
+        if (showStats && (statsUpdated == Long.MIN_VALUE || now - statsUpdated >= VideoRenderer.STATS_INTERVAL)) {
+            statsText.setText(VideoRenderer.statsText(stats));
+            statsUpdated = now;
+        }
+    }
+
+    void setShowStats(boolean show) {
+        showStats = show;
+        statsLayer.setVisible(show);
+        statsUpdated = Long.MIN_VALUE;
+    }
+
+    void setShowAnimation(boolean show) {
+        if (show != showAnimation) {
+            showAnimation = show;
+            if (show) {
+                animation.show();
+            } else {
+                animation.hide();
+            }
+        }
+        animationLayer.setVisible(show);
+    }
+
+    /**
+     * Pause or resume the animation overlay, e.g. while the layers cannot be seen.
+     *
+     * @param suspended <code>true</code> to pause the animation; <code>false</code> to resume it
+     */
+    void setSuspended(boolean suspended) {
+        if (suspended) {
+            animation.pause();
+        } else {
+            animation.play();
+        }
+    }
+
+    private static Text outlinedText(String text) {
+        Text result = new Text(text);
+        result.setFont(FONT);
+        result.setFill(Color.WHITE);
+        result.setStroke(Color.BLACK);
+        result.setStrokeType(StrokeType.OUTSIDE);
+        result.setStrokeWidth(1);
+        return result;
+    }
+}
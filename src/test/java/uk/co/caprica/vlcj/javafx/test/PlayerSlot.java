@@ -0,0 +1,112 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.media.MediaRef;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+
+/**
+ * A media player with its own video frames, so that media can be prepared in it off screen - started, with its video
+ * buffers allocated and its first frame decoded - and then presented instantly just by rendering from its video frames
+ * instead of from some other player's.
+ * <p>
+ * The media player methods block, so must not be invoked on the JavaFX application thread (or from a media player
+ * event).
+ */
+final class PlayerSlot {
+
+    private final EmbeddedMediaPlayer mediaPlayer;
+
+    private final VideoFrames videoFrames = new VideoFrames();
+
+    /**
+     * Create a slot.
+     *
+     * @param mediaPlayerFactory factory to create the media player
+     * @param name name to distinguish the statistics of this slot from those of any other
+     */
+    PlayerSlot(MediaPlayerFactory mediaPlayerFactory, String name) {
+        mediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
+        mediaPlayer.videoSurface().set(mediaPlayerFactory.videoSurfaces().newVideoSurface(videoFrames.bufferFormatCallback(), videoFrames.renderCallback(), true));
+
+        mediaPlayer.events().addMediaPlayerEventListener(new MediaPlayerEventAdapter() {
+            @Override
+            public void videoOutput(MediaPlayer mediaPlayer, int newCount) {
+                // The media player must not be called back from one of its own events
+                mediaPlayer.submit(() -> videoFrames.scheduler().setFrameRate(JavaFXDirectRenderingTest.mediaFrameRate(mediaPlayer) * mediaPlayer.status().rate()));
+            }
+        });
+
+        videoFrames.stats().register(name);
+    }
+
+    EmbeddedMediaPlayer mediaPlayer() {
+        return mediaPlayer;
+    }
+
+    VideoFrames videoFrames() {
+        return videoFrames;
+    }
+
+    /**
+     * Start the media, paused on its first frame.
+     * <p>
+     * This returns once the media is paused, by which time the video buffers have been allocated - the first frame is
+     * delivered to the video frames very shortly afterwards, if it has not been already.
+     *
+     * @param media media to start, the caller should release it afterwards
+     * @return <code>true</code> if the media was started
+     */
+    boolean preroll(MediaRef media) {
+        return mediaPlayer.media().startPaused(media);
+    }
+
+    /**
+     * Play the media, resuming it if it was prerolled.
+     */
+    void play() {
+        mediaPlayer.controls().play();
+    }
+
+    void stop() {
+        mediaPlayer.controls().stop();
+    }
+
+    /**
+     * Move the slot to the background, or bring it back.
+     * <p>
+     * In the background the media keeps playing (e.g. to keep a live stream buffered), but it is muted and the video
+     * frames are not even copied, since they are not presented.
+     *
+     * @param background <code>true</code> to move to the background; <code>false</code> to bring it back
+     */
+    void setBackground(boolean background) {
+        mediaPlayer.audio().setMute(background);
+        videoFrames.setSuspended(background);
+    }
+
+    void release() {
+        mediaPlayer.controls().stop();
+        mediaPlayer.release();
+    }
+}
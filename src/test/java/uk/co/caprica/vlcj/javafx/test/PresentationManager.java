@@ -0,0 +1,154 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.stage.Stage;
+
+/**
+ * Starts, pauses and stops the render timer, according to both the playback state and whether or not the video can
+ * actually be seen.
+ * <p>
+ * The video can not be seen if the window is minimised (iconified) or hidden, or if the video view itself is hidden
+ * (e.g. when the logo is showing instead). While the video can not be seen the timer is paused, even if the media is
+ * still playing, and frames delivered by LibVLC are not copied into the swap chain (so there is nothing to upload
+ * either) - so there is no per-frame work at all on the JavaFX application thread.
+ * <p>
+ * As soon as the video can be seen again the most recent frame is rendered straight away, rather than waiting for the
+ * next timer tick, and then the timer is resumed if the media is playing.
+ * <p>
+ * JavaFX does not report if a window is occluded by other windows, so an occluded window is still treated as visible.
+ * <p>
+ * Apart from the playback methods, must only be used on the JavaFX application thread.
+ */
+final class PresentationManager {
+
+    private enum Playback {
+        PLAYING,
+        PAUSED,
+        STOPPED
+    }
+
+    private final JavaFXDirectRenderingTest application;
+
+    private final VideoFrames videoFrames;
+
+    private final VideoView videoView;
+
+    private final InvalidationListener visibilityListener = observable -> update();
+
+    private Stage stage;
+
+    /**
+     * The timer is started when the application starts, before there is any media, so that the view is painted.
+     */
+    private Playback playback = Playback.PLAYING;
+
+    private boolean videoVisible;
+
+    PresentationManager(JavaFXDirectRenderingTest application, VideoFrames videoFrames, VideoView videoView) {
+        this.application = application;
+        this.videoFrames = videoFrames;
+        this.videoView = videoView;
+
+        videoView.node().visibleProperty().addListener(visibilityListener);
+    }
+
+    /**
+     * Start watching the window containing the video view, and start the timer if appropriate.
+     *
+     * @param stage window containing the video view
+     */
+    void watch(Stage stage) {
+        this.stage = stage;
+        stage.iconifiedProperty().addListener(visibilityListener);
+        stage.showingProperty().addListener(visibilityListener);
+        update();
+    }
+
+    /**
+     * Playback started, the timer should run whenever the video can be seen.
+     * <p>
+     * May be invoked on any thread.
+     */
+    void playbackStarted() {
+        setPlayback(Playback.PLAYING);
+    }
+
+    /**
+     * Playback paused, the timer should be paused.
+     * <p>
+     * May be invoked on any thread.
+     */
+    void playbackPaused() {
+        setPlayback(Playback.PAUSED);
+    }
+
+    /**
+     * Playback stopped, finished or failed, the timer should be stopped.
+     * <p>
+     * May be invoked on any thread.
+     */
+    void playbackStopped() {
+        setPlayback(Playback.STOPPED);
+    }
+
+    /**
+     * Can the video currently be seen?
+     *
+     * @return <code>true</code> if the video can be seen
+     */
+    boolean isVideoVisible() {
+        return videoVisible;
+    }
+
+    private void setPlayback(Playback playback) {
+        Platform.runLater(() -> {
+            this.playback = playback;
+            update();
+        });
+    }
+
+    private void update() {
+        if (stage == null) {
+            return;
+        }
+        boolean visible = stage.isShowing() && !stage.isIconified() && videoView.node().isVisible();
+        if (visible != videoVisible) {
+            videoVisible = visible;
+            videoFrames.setSuspended(!visible);
+            videoView.setSuspended(!visible);
+            if (visible) {
+                // Catch up on the next pulse, the view may have been resized or the overlays changed while it was
+                // hidden, and the cadence measured before it was hidden no longer means anything
+                videoFrames.scheduler().resync();
+                application.repaint();
+            }
+        }
+        if (playback == Playback.STOPPED) {
+            application.stopTimer();
+        } else if (playback == Playback.PLAYING && visible) {
+            application.startTimer();
+        } else {
+            application.pauseTimer();
+        }
+    }
+}
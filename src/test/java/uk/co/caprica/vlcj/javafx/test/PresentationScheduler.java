@@ -0,0 +1,204 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+/**
+ * Decides, on each tick of the timer, whether the latest video frame should be presented now or held until a later
+ * tick, so that frames are presented with an even cadence.
+ * <p>
+ * LibVLC already delivers frames paced to the media clock, but the time each frame arrives jitters a little. When the
+ * timer runs at a different rate to the video (e.g. 60Hz ticks for 24, 25 or 50 fps media) a frame arriving just before
+ * a tick is presented on that tick, whereas a frame arriving just after it waits for the next one - so the same jitter
+ * makes frames alternate unevenly between being shown for one tick too few or one too many (judder).
+ * <p>
+ * Instead, the arrival time of each frame is predicted from the media frame rate, phase-locked to the actual arrival
+ * times, and a frame is held until half a tick after its predicted arrival - so it is presented on the tick nearest to
+ * one tick after it was due, even if it actually arrived a little early or late. Frames that are very late are simply
+ * replaced by the next one in the {@link SwapChain}.
+ * <p>
+ * The cadence error of each presented frame is how many ticks early or late it was presented, compared with the first
+ * tick after it was due - this is recorded in the {@link FrameStats}. When the tick rate is not a multiple of the frame
+ * rate the pulldown pattern itself is unavoidable (e.g. 3:2 for 24 fps on 60Hz), but with an even cadence the error is
+ * zero, whereas each judder shows up as an error of a whole tick.
+ * <p>
+ * If the frame rate is not known, or the scheduler is disabled, every new frame is presented as soon as it is available
+ * (the cadence error is still recorded, for comparison).
+ * <p>
+ * Apart from {@link #setFrameRate(double)}, {@link #setEnabled(boolean)} and {@link #resync()}, must only be used on the
+ * JavaFX application thread.
+ */
+final class PresentationScheduler {
+
+    /**
+     * Assumed tick period until it has been measured, in nanoseconds.
+     */
+    private static final long DEFAULT_TICK_PERIOD = 1000000000L / 60;
+
+    /**
+     * Largest number of frames a new frame may be ahead of the last presented frame before the prediction is considered
+     * broken (e.g. after a seek or a stall) and is restarted from the new frame.
+     */
+    private static final int MAX_FRAME_GAP = 8;
+
+    /**
+     * Inverse gain applied to the difference between the predicted and actual arrival times.
+     */
+    private static final int PHASE_GAIN = 16;
+
+    private final FrameStats stats;
+
+    /**
+     * Media frame period, in nanoseconds, or zero if not known.
+     */
+    private volatile long framePeriod;
+
+    private volatile boolean enabled = true;
+
+    private volatile boolean resync = true;
+
+    private long tickPeriod = DEFAULT_TICK_PERIOD;
+
+    private long lastTick;
+
+    /**
+     * Predicted arrival time of the last presented frame.
+     */
+    private long predicted;
+
+    private boolean locked;
+
+    PresentationScheduler(FrameStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Set the media frame rate.
+     * <p>
+     * May be invoked from any thread.
+     *
+     * @param frameRate frame rate, in frames per second (taking account of the playback rate), zero if not known
+     */
+    void setFrameRate(double frameRate) {
+        framePeriod = frameRate > 0 ? Math.round(1000000000L / frameRate) : 0;
+        resync = true;
+    }
+
+    /**
+     * Enable or disable scheduling.
+     * <p>
+     * May be invoked from any thread.
+     *
+     * @param enabled <code>true</code> to schedule presentation, <code>false</code> to present every frame immediately
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Restart the prediction from the next frame, e.g. when playback starts or resumes.
+     * <p>
+     * May be invoked from any thread.
+     */
+    void resync() {
+        resync = true;
+    }
+
+    /**
+     * Record a timer tick, this is used to measure the tick period.
+     *
+     * @param now current time, from {@link System#nanoTime()}
+     */
+    void tick(long now) {
+        long elapsed = now - lastTick;
+        lastTick = now;
+        // Ignore gaps where the timer was stopped or stalled
+        if (elapsed > 0 && elapsed < tickPeriod * 4) {
+            tickPeriod += (elapsed - tickPeriod) / 16;
+        }
+    }
+
+    /**
+     * Decide whether or not to present a new frame on this tick.
+     *
+     * @param now current time, from {@link System#nanoTime()}
+     * @param arrival time the new frame arrived
+     * @return <code>true</code> if the frame should be presented now; <code>false</code> if it should be held
+     */
+    boolean present(long now, long arrival) {
+        long period = framePeriod;
+        if (period == 0) {
+            locked = false;
+            return true;
+        }
+        long expected;
+        long frames = 0;
+        if (locked && !resync) {
+            frames = Math.round((double) (arrival - predicted) / period);
+        }
+        if (frames >= 1 && frames <= MAX_FRAME_GAP) {
+            expected = predicted + frames * period;
+            expected += (arrival - expected) / PHASE_GAIN;
+        } else {
+            expected = arrival;
+            frames = 0;
+        }
+        // When disabled, frames are presented as soon as they arrive, so that is when they are due
+        long due = enabled ? expected + holdTime(period) : expected;
+        if (enabled && now < due) {
+            return false;
+        }
+        if (frames > 0) {
+            stats.cadenceError(cadenceError(now, due));
+        }
+        predicted = expected;
+        locked = true;
+        resync = false;
+        return true;
+    }
+
+    /**
+     * Get how long after its predicted arrival a frame may be held.
+     * <p>
+     * Ideally half a tick, so the frame is presented on the tick nearest to one tick after its arrival - but only one
+     * frame can be waiting in the swap chain, so a frame must not be held so long that the next frame replaces it.
+     *
+     * @param period frame period
+     * @return hold time, in nanoseconds
+     */
+    private long holdTime(long period) {
+        return Math.max(0, Math.min(tickPeriod / 2, (period - tickPeriod) / 2));
+    }
+
+    /**
+     * Get the difference between the actual presentation time of a frame and the ideal presentation time - the first
+     * tick at or after the time the frame was due.
+     *
+     * @param now actual presentation time
+     * @param due time the frame was due
+     * @return absolute cadence error, in whole ticks (as nanoseconds)
+     */
+    private long cadenceError(long now, long due) {
+        if (now >= due) {
+            return (now - due) / tickPeriod * tickPeriod;
+        } else {
+            return (due - now + tickPeriod - 1) / tickPeriod * tickPeriod;
+        }
+    }
+}
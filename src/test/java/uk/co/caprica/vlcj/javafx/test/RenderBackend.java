@@ -0,0 +1,79 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+/**
+ * The available {@link VideoView} implementations.
+ */
+enum RenderBackend {
+
+    /**
+     * Draw the video frame and the overlays to a Canvas, on every tick that something changed.
+     */
+    CANVAS,
+
+    /**
+     * Show the video frame image in an ImageView, with the overlays as cached scene graph layers.
+     */
+    IMAGE_VIEW,
+
+    /**
+     * Draw only the video frame to a Canvas, with the overlays as cached scene graph layers.
+     */
+    LAYERS;
+
+    /**
+     * Get a render backend from its command-line name.
+     *
+     * @param name "canvas", "imageview" or "layers"
+     * @return render backend, the canvas if the name is not recognised
+     */
+    static RenderBackend fromName(String name) {
+        switch (name.toLowerCase()) {
+            case "imageview":
+                return IMAGE_VIEW;
+            case "layers":
+                return LAYERS;
+            case "canvas":
+            default:
+                return CANVAS;
+        }
+    }
+
+    /**
+     * Create a new view for this render backend.
+     * <p>
+     * Must be invoked on the JavaFX application thread.
+     *
+     * @return view
+     */
+    VideoView createView() {
+        switch (this) {
+            case IMAGE_VIEW:
+                return new LayeredVideoView(new ImageViewVideoView(), new OverlayAnimation());
+            case LAYERS:
+                OverlayAnimation animation = new OverlayAnimation();
+                return new LayeredVideoView(new CanvasVideoView(animation), animation);
+            case CANVAS:
+            default:
+                return new CanvasVideoView();
+        }
+    }
+}
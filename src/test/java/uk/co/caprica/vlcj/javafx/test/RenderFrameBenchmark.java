@@ -0,0 +1,94 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the per-tick render path - background fill, transform, drawImage and the overlays.
+ * <p>
+ * This measures the cost on the JavaFX application thread of recording the canvas commands, it does not include the
+ * cost of the render thread actually executing them.
+ * <p>
+ * Frames are rendered in batches on the JavaFX application thread, as in the real application, so the cost of handing
+ * each batch to that thread is spread over many frames. Run with "-prof gc" to see the allocation rate of the render
+ * path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderFrameBenchmark {
+
+    @Param({"1280x720", "1920x1080", "3840x2160"})
+    public String resolution;
+
+    @Param({"true", "false"})
+    public boolean overlays;
+
+    private VideoRenderer renderer;
+
+    private WritableImage image;
+
+    private final FrameStats stats = new FrameStats();
+
+    @Setup
+    public void setUp() {
+        Benchmarks.startToolkit();
+        int[] size = Benchmarks.parseResolution(resolution);
+        SwapChain swapChain = new SwapChain(size[0], size[1], PixelFormat.getByteBgraPreInstance());
+        new SyntheticFrameGenerator(size[0], size[1], SyntheticFrameGenerator.Pattern.BARS).nextFrame(swapChain.backBuffer());
+        swapChain.publish();
+        swapChain.swap();
+        image = swapChain.frontImage();
+        Canvas canvas = new Canvas(1280, 720);
+        Benchmarks.runAndWait(() -> renderer = new VideoRenderer(canvas));
+        renderer.setShowStats(overlays);
+        renderer.setShowAnimation(overlays);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void renderFrame() {
+        Benchmarks.runAndWait(() -> {
+            for (int i = 0; i < 100; i++) {
+                renderer.render(image, stats);
+            }
+        });
+    }
+}
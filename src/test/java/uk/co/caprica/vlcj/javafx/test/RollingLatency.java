@@ -0,0 +1,93 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+/**
+ * Measures a latency distribution over consecutive five second windows, as well as since the last reset.
+ * <p>
+ * The percentiles of the most recently completed window are kept, so the reported values always reflect recent
+ * behaviour rather than being diluted by a long history. Recording a value never allocates.
+ * <p>
+ * Values should be recorded by a single thread. Reading from another thread (e.g. via JMX) is allowed.
+ */
+final class RollingLatency {
+
+    private static final long WINDOW = 5000000000L;
+
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    private final LatencyHistogram window = new LatencyHistogram();
+
+    private long windowStart = System.nanoTime();
+
+    private volatile long recentP50;
+
+    private volatile long recentP99;
+
+    private volatile long recentMax;
+
+    /**
+     * Record a value.
+     *
+     * @param value value, in nanoseconds
+     * @param now current time, from {@link System#nanoTime()}
+     */
+    void record(long value, long now) {
+        total.record(value);
+        window.record(value);
+        if (now - windowStart >= WINDOW) {
+            recentP50 = window.percentile(50);
+            recentP99 = window.percentile(99);
+            recentMax = window.max();
+            window.reset();
+            windowStart = now;
+        }
+    }
+
+    /**
+     * Get the distribution since the last reset.
+     *
+     * @return histogram
+     */
+    LatencyHistogram total() {
+        return total;
+    }
+
+    long recentP50() {
+        return recentP50;
+    }
+
+    long recentP99() {
+        return recentP99;
+    }
+
+    long recentMax() {
+        return recentMax;
+    }
+
+    void reset() {
+        total.reset();
+        window.reset();
+        windowStart = System.nanoTime();
+        recentP50 = 0;
+        recentP99 = 0;
+        recentMax = 0;
+    }
+}
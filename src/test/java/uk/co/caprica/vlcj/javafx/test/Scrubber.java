@@ -0,0 +1,250 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces the seeks made while dragging the timeline, so that there is never more than one seek outstanding.
+ * <p>
+ * Each seek is only sent once the previous seek has landed (the media player reported a time near its target) and the
+ * first video frame after that has been delivered, or the previous seek timed out, in the meantime only the latest target position is kept - so however fast the slider moves, LibVLC never
+ * has a queue of seeks to work through before it can show the position the user actually wants. The final seek, when
+ * the drag ends, does not wait at all.
+ * <p>
+ * The time from sending a seek to the first frame after it landed is recorded in the {@link FrameStats}.
+ * <p>
+ * Every seek has a sequence number, so a seek that was superseded or timed out before its command was executed is never
+ * sent to the media player, and the completion of one seek can never be taken for the completion of another.
+ * <p>
+ * The seeks themselves are sent via the {@link MediaPlayerCommands}, so they never run on the JavaFX application
+ * thread or the native video thread.
+ */
+final class Scrubber {
+
+    /**
+     * Target position value meaning there is no seek waiting to be sent.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Time to wait for a frame after a seek, after this the next seek is sent anyway (e.g. for media with no video).
+     */
+    private static final Duration SEEK_TIMEOUT = Duration.millis(500);
+
+    /**
+     * How close the reported time must be to the target of a seek for the seek to have landed, in milliseconds.
+     */
+    private static final long SEEK_TOLERANCE = 500;
+
+    private final MediaPlayer mediaPlayer;
+
+    private final MediaPlayerCommands commands;
+
+    private final FrameStats stats;
+
+    /**
+     * Latest target position waiting to be sent, as float bits, or {@link #NONE}.
+     */
+    private final AtomicInteger target = new AtomicInteger(NONE);
+
+    /**
+     * Sequence number of the last seek.
+     */
+    private final AtomicLong seeks = new AtomicLong();
+
+    /**
+     * Sequence number of the outstanding seek, or zero if there is none.
+     */
+    private final AtomicLong inFlight = new AtomicLong();
+
+    /**
+     * Completes the outstanding seek if no frame arrives in time - only used on the JavaFX application thread.
+     */
+    private final PauseTransition timeout = new PauseTransition(SEEK_TIMEOUT);
+
+    /**
+     * Sequence number of the seek the timeout is running for - only used on the JavaFX application thread.
+     */
+    private long timedSeek;
+
+    /**
+     * Sequence number of the seek most recently sent to the media player, written after its time and target.
+     */
+    private volatile long sentSeek;
+
+    /**
+     * Time the seek most recently sent to the media player was sent.
+     */
+    private volatile long seekSent;
+
+    /**
+     * Target time of the seek most recently sent to the media player, in milliseconds.
+     */
+    private volatile long seekTargetTime;
+
+    /**
+     * Sequence number of the seek that has landed, waiting for its first frame.
+     */
+    private volatile long landedSeek;
+
+    private volatile float lastPosition = -1;
+
+    Scrubber(MediaPlayer mediaPlayer, MediaPlayerCommands commands, FrameStats stats) {
+        this.mediaPlayer = mediaPlayer;
+        this.commands = commands;
+        this.stats = stats;
+
+        timeout.setOnFinished(event -> expire(timedSeek));
+
+        mediaPlayer.events().addMediaPlayerEventListener(new MediaPlayerEventAdapter() {
+            @Override
+            public void timeChanged(MediaPlayer mediaPlayer, long newTime) {
+                Scrubber.this.timeChanged(newTime);
+            }
+        });
+    }
+
+    /**
+     * Seek to a position while dragging, replacing any seek that has not been sent yet.
+     *
+     * @param position position, from 0 to 1
+     */
+    void seek(float position) {
+        // Dragging very often produces the same position again, there is no need to seek to it twice
+        if (position != lastPosition) {
+            request(position);
+        }
+    }
+
+    /**
+     * Seek to the final position when the drag ends.
+     * <p>
+     * This is always sent straight away, even if another seek is outstanding or it is the same as the last position,
+     * so the picture ends up exactly where the slider was released. Any seek still waiting to be sent is discarded.
+     *
+     * @param position position, from 0 to 1
+     */
+    void seekExact(float position) {
+        stats.seekRequested();
+        target.set(NONE);
+        long seek = seeks.incrementAndGet();
+        inFlight.set(seek);
+        submit(seek, position);
+    }
+
+    /**
+     * Notify that a video frame has been delivered, completing the outstanding seek if it has landed.
+     * <p>
+     * Invoked by the native video thread for every frame, so this must be cheap.
+     */
+    void frameDelivered() {
+        long seek = landedSeek;
+        if (seek != 0 && inFlight.compareAndSet(seek, 0)) {
+            stats.seekCompleted(System.nanoTime() - seekSent);
+            send();
+        }
+    }
+
+    /**
+     * Mark the outstanding seek as landed if the media player time is now near its target.
+     * <p>
+     * Invoked by the native event thread.
+     *
+     * @param time new media time, in milliseconds
+     */
+    private void timeChanged(long time) {
+        long seek = sentSeek;
+        if (seek != 0 && inFlight.get() == seek && Math.abs(time - seekTargetTime) <= SEEK_TOLERANCE) {
+            landedSeek = seek;
+        }
+    }
+
+    private void request(float position) {
+        stats.seekRequested();
+        target.set(Float.floatToIntBits(position));
+        send();
+    }
+
+    /**
+     * Send the latest target position, unless a seek is already outstanding.
+     */
+    private void send() {
+        while (true) {
+            long seek = seeks.incrementAndGet();
+            if (!inFlight.compareAndSet(0, seek)) {
+                return;
+            }
+            int bits = target.getAndSet(NONE);
+            if (bits != NONE) {
+                submit(seek, Float.intBitsToFloat(bits));
+                return;
+            }
+            inFlight.set(0);
+            // Another target may have been set after it was checked but before the seek was cleared
+            if (target.get() == NONE) {
+                return;
+            }
+        }
+    }
+
+    private void submit(long seek, float position) {
+        lastPosition = position;
+        stats.seekSent();
+        commands.submit("setPosition", () -> {
+            // Superseded or timed out while waiting in the queue
+            if (inFlight.get() != seek) {
+                return;
+            }
+            seekTargetTime = (long) (position * mediaPlayer.status().length());
+            seekSent = System.nanoTime();
+            sentSeek = seek;
+            mediaPlayer.controls().setPosition(position);
+        });
+        // This may be invoked on the native video thread, so the timeout is always started on the JavaFX thread
+        Platform.runLater(() -> startTimeout(seek));
+    }
+
+    private void startTimeout(long seek) {
+        if (inFlight.get() == seek) {
+            timedSeek = seek;
+            timeout.playFromStart();
+        }
+    }
+
+    /**
+     * Give up waiting for a frame after a seek, and send the next one if there is one (e.g. for media with no video, or
+     * if the seek failed).
+     *
+     * @param seek sequence number of the seek that timed out
+     */
+    private void expire(long seek) {
+        if (inFlight.compareAndSet(seek, 0)) {
+            send();
+        }
+    }
+}
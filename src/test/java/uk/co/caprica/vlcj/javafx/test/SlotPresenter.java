@@ -0,0 +1,62 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.function.Supplier;
+
+/**
+ * Presents the video frames of whichever {@link PlayerSlot} is active, on every pulse.
+ * <p>
+ * When the active slot changes (e.g. a cut to the next playlist item, or a channel switch), the view is redrawn from
+ * the new slot's video frames straight away - if its first frame is already waiting, it is presented on that pulse.
+ */
+final class SlotPresenter extends AnimationTimer {
+
+    private final VideoView videoView;
+
+    private final Supplier<PlayerSlot> activeSlot;
+
+    private PlayerSlot presented;
+
+    /**
+     * Create a presenter, it must then be started.
+     *
+     * @param videoView view to render to
+     * @param activeSlot supplies the slot to present, checked on every pulse
+     */
+    SlotPresenter(VideoView videoView, Supplier<PlayerSlot> activeSlot) {
+        this.videoView = videoView;
+        this.activeSlot = activeSlot;
+    }
+
+    @Override
+    public void handle(long now) {
+        PlayerSlot slot = activeSlot.get();
+        VideoFrames videoFrames = slot.videoFrames();
+        if (slot != presented) {
+            presented = slot;
+            videoFrames.scheduler().resync();
+            videoView.invalidate();
+        }
+        videoView.renderIfNeeded(videoFrames.swapFrame(), videoFrames.stats());
+    }
+}
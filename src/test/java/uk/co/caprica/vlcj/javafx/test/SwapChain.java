@@ -0,0 +1,330 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free chain of video frame buffers shared between the native video thread and the JavaFX application thread.
+ * <p>
+ * This is triple-buffering with one extra slot:
+ * <ul>
+ *     <li>the "back" buffer is owned by the native thread, the next frame is copied into it;</li>
+ *     <li>the "ready" buffer is the latest complete frame, it is exchanged atomically by both threads;</li>
+ *     <li>the "front" buffer is owned by the JavaFX thread, it is the image currently being presented;</li>
+ *     <li>the "retired" buffer is the previous front buffer, it is held back until the next swap because the render
+ *         thread may still be uploading it to a texture for the previous pulse.</li>
+ * </ul>
+ * Neither side ever blocks - if the native thread publishes faster than the JavaFX thread swaps, the unseen frame in
+ * the ready slot is simply recycled as the next back buffer.
+ * <p>
+ * Each buffer has its own {@link PixelBuffer} and {@link WritableImage}, so swapping buffers on the JavaFX side is
+ * just a matter of switching which image gets drawn.
+ * <p>
+ * Each buffer also tracks its own {@link DirtyRegion}, the part of the buffer that changed since it was last uploaded.
+ * This travels with the buffer as it moves between threads - the native thread extends it when a frame is copied in,
+ * and the JavaFX thread uploads it and clears it when the buffer is presented. Since a buffer may be recycled without
+ * ever being presented, the region accumulates until it is.
+ * <p>
+ * Each buffer is also stamped with the time it was published, so that the JavaFX thread can decide when the frame is
+ * due to be presented (see {@link PresentationScheduler}), and optionally with the sequence number and time of the native
+ * display callback that delivered it, so that the delay from delivery to presentation can be measured.
+ * <p>
+ * {@link #swap()} must only be invoked during a pulse (i.e. from a timer or animation handler, or a scene pulse
+ * listener), never from an arbitrary {@link javafx.application.Platform#runLater(Runnable)} or property listener,
+ * otherwise the retired buffer could be released before the render thread has finished with it - to present a frame
+ * from anywhere else, request a pulse with {@link javafx.application.Platform#requestNextPulse()} and swap in the pulse.
+ */
+final class SwapChain {
+
+    /**
+     * Number of buffers in the chain - back, ready, front and retired.
+     */
+    static final int BUFFER_COUNT = 4;
+
+    /**
+     * Mask to get the buffer index from the packed ready state.
+     */
+    private static final int INDEX_MASK = 0x3;
+
+    /**
+     * Flag set in the packed ready state when the ready buffer contains a frame that has not yet been presented.
+     */
+    private static final int FRESH = 0x4;
+
+    private final int width;
+
+    private final int height;
+
+    private final ByteBuffer[] buffers = new ByteBuffer[BUFFER_COUNT];
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final PixelBuffer<ByteBuffer>[] pixelBuffers = new PixelBuffer[BUFFER_COUNT];
+
+    private final WritableImage[] images = new WritableImage[BUFFER_COUNT];
+
+    private final DirtyRegion[] dirtyRegions = new DirtyRegion[BUFFER_COUNT];
+
+    /**
+     * Time each buffer was last published, from {@link System#nanoTime()}.
+     */
+    private final AtomicLongArray timestamps = new AtomicLongArray(BUFFER_COUNT);
+
+    /**
+     * Sequence number of the frame in each buffer, see {@link #stamp(long, long, boolean)}.
+     * <p>
+     * Like the buffer contents, these are handed between threads by the atomic exchange of the ready buffer.
+     */
+    private final long[] sequences = new long[BUFFER_COUNT];
+
+    /**
+     * Time the frame in each buffer was delivered, from {@link System#nanoTime()}.
+     */
+    private final long[] deliveryTimes = new long[BUFFER_COUNT];
+
+    /**
+     * Whether or not to draw a {@link FrameMarker} into the back buffer when it is published.
+     */
+    private boolean markBack;
+
+    /**
+     * Optional stage used to copy only the changed parts of each frame.
+     */
+    private final DirtyRegionDetector dirtyRegionDetector;
+
+    /**
+     * Packed index of the ready buffer, with the {@link #FRESH} flag.
+     */
+    private final AtomicInteger ready = new AtomicInteger(1);
+
+    /**
+     * Index of the buffer owned by the native thread.
+     */
+    private int back = 0;
+
+    /**
+     * Index of the buffer owned by the JavaFX application thread.
+     */
+    private int front = 2;
+
+    /**
+     * Index of the previous front buffer, owned by the JavaFX application thread until the next swap.
+     */
+    private int retired = 3;
+
+    /**
+     * Create a swap chain.
+     *
+     * @param width width of each buffer, in pixels
+     * @param height height of each buffer, in pixels
+     * @param pixelFormat pixel format of the buffers
+     */
+    SwapChain(int width, int height, WritablePixelFormat<ByteBuffer> pixelFormat) {
+        this.width = width;
+        this.height = height;
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(width * height * 4);
+            pixelBuffers[i] = new PixelBuffer<>(width, height, buffers[i], pixelFormat);
+            images[i] = new WritableImage(pixelBuffers[i]);
+            dirtyRegions[i] = new DirtyRegion(width, height);
+        }
+        this.dirtyRegionDetector = new DirtyRegionDetector(width, height);
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    /**
+     * Get the buffer the next frame should be written to.
+     * <p>
+     * Must only be invoked by the native thread.
+     *
+     * @return back buffer
+     */
+    ByteBuffer backBuffer() {
+        return buffers[back];
+    }
+
+    /**
+     * Copy a native video frame into the back buffer and publish it.
+     * <p>
+     * Must only be invoked by the native thread.
+     *
+     * @param source native video buffer
+     * @param detectDirtyRegions <code>true</code> to copy (and later upload) only the parts of the frame that changed
+     * @return <code>true</code> if a previously published frame was replaced before it was ever presented
+     */
+    boolean publish(ByteBuffer source, boolean detectDirtyRegions) {
+        if (detectDirtyRegions) {
+            dirtyRegionDetector.copy(source, buffers[back], dirtyRegions[back]);
+        } else {
+            dirtyRegionDetector.copyAll(source, buffers[back], dirtyRegions[back]);
+        }
+        return publish();
+    }
+
+    /**
+     * Convert a native YUV video frame into the back buffer and publish it.
+     * <p>
+     * The whole frame is always converted, dirty region detection is not supported.
+     * <p>
+     * Must only be invoked by the native thread.
+     *
+     * @param converter converter for the native frame format
+     * @param planes native video buffer planes
+     * @return <code>true</code> if a previously published frame was replaced before it was ever presented
+     */
+    boolean publish(YuvConverter converter, ByteBuffer[] planes) {
+        converter.convert(planes, buffers[back]);
+        dirtyRegions[back].setFull();
+        return publish();
+    }
+
+    /**
+     * Stamp the next frame to be published with its sequence number and delivery time.
+     * <p>
+     * Must only be invoked by the native thread, before the frame is published.
+     *
+     * @param sequence frame sequence number
+     * @param deliveryTime time the frame was delivered, from {@link System#nanoTime()}
+     * @param mark <code>true</code> to draw a {@link FrameMarker} into the frame
+     */
+    void stamp(long sequence, long deliveryTime, boolean mark) {
+        sequences[back] = sequence;
+        deliveryTimes[back] = deliveryTime;
+        markBack = mark;
+    }
+
+    /**
+     * Publish the back buffer as the latest complete frame, after it has been written.
+     * <p>
+     * Must only be invoked by the native thread.
+     *
+     * @return <code>true</code> if a previously published frame was replaced before it was ever presented
+     */
+    boolean publish() {
+        if (markBack && FrameMarker.draw(buffers[back], width, height, sequences[back], System.currentTimeMillis())) {
+            dirtyRegions[back].union(0, 0, FrameMarker.WIDTH, FrameMarker.HEIGHT);
+        }
+        timestamps.set(back, System.nanoTime());
+        int previous = ready.getAndSet(back | FRESH);
+        back = previous & INDEX_MASK;
+        return (previous & FRESH) != 0;
+    }
+
+    /**
+     * Get the time the latest complete frame was published, if it has not been presented yet.
+     * <p>
+     * The native thread may publish another frame at any time, so by the time {@link #swap()} is invoked the ready
+     * frame may be a newer one than the frame this timestamp belongs to.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     *
+     * @return publication time, from {@link System#nanoTime()}; or {@link Long#MIN_VALUE} if there is no new frame
+     */
+    long readyTimestamp() {
+        int state = ready.get();
+        return (state & FRESH) != 0 ? timestamps.get(state & INDEX_MASK) : Long.MIN_VALUE;
+    }
+
+    /**
+     * Make the latest complete frame, if there is one, the front buffer.
+     * <p>
+     * Must only be invoked on the JavaFX application thread, during a pulse.
+     *
+     * @return <code>true</code> if the front buffer changed; <code>false</code> if there was no new frame
+     */
+    boolean swap() {
+        if ((ready.get() & FRESH) == 0) {
+            return false;
+        }
+        int next = ready.getAndSet(retired) & INDEX_MASK;
+        retired = front;
+        front = next;
+        return true;
+    }
+
+    /**
+     * Get the current front buffer.
+     *
+     * @return front buffer
+     */
+    ByteBuffer frontBuffer() {
+        return buffers[front];
+    }
+
+    /**
+     * Get the pixel buffer for the current front buffer.
+     *
+     * @return front pixel buffer
+     */
+    PixelBuffer<ByteBuffer> frontPixelBuffer() {
+        return pixelBuffers[front];
+    }
+
+    /**
+     * Get the dirty region of the current front buffer.
+     * <p>
+     * The caller is expected to upload this region and then clear it.
+     *
+     * @return front dirty region
+     */
+    DirtyRegion frontDirtyRegion() {
+        return dirtyRegions[front];
+    }
+
+    /**
+     * Get the sequence number of the frame in the current front buffer.
+     *
+     * @return sequence number, zero if the frame was not stamped
+     */
+    long frontSequence() {
+        return sequences[front];
+    }
+
+    /**
+     * Get the time the frame in the current front buffer was delivered.
+     *
+     * @return delivery time, from {@link System#nanoTime()}; zero if the frame was not stamped
+     */
+    long frontDeliveryTime() {
+        return deliveryTimes[front];
+    }
+
+    /**
+     * Get the image for the current front buffer.
+     *
+     * @return front image
+     */
+    WritableImage frontImage() {
+        return images[front];
+    }
+}
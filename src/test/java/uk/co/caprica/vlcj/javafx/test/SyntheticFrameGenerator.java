@@ -0,0 +1,179 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic BGRA video frames, so the render path can be exercised without LibVLC or any media.
+ * <p>
+ * Pixels are written as little-endian ARGB integers, which gives the BGRA byte order expected by the pixel buffer.
+ * <p>
+ * Everything that can be is precomputed, so generating a frame is mostly bulk copying - fast enough to produce 4K
+ * frames at high frame rates without the generator itself being the bottleneck.
+ */
+final class SyntheticFrameGenerator {
+
+    /**
+     * Picture to generate.
+     */
+    enum Pattern {
+
+        /**
+         * Colour bars scrolling horizontally, every line changes every frame.
+         */
+        BARS,
+
+        /**
+         * Random noise, every pixel changes every frame.
+         */
+        NOISE,
+
+        /**
+         * Static colour bars with a small blinking square that moves around, so only a small part of each frame
+         * changes.
+         */
+        STATIC
+    }
+
+    private static final int[] BAR_COLOURS = {
+        0xffc0c0c0, 0xffc0c000, 0xff00c0c0, 0xff00c000, 0xffc000c0, 0xffc00000, 0xff0000c0, 0xff000000
+    };
+
+    /**
+     * Size of the square that changes in the static pattern, in pixels.
+     */
+    private static final int SQUARE_SIZE = 64;
+
+    /**
+     * Scroll speed of the bars pattern, in pixels per frame.
+     */
+    private static final int SCROLL_SPEED = 8;
+
+    /**
+     * Number of extra lines of noise, so each frame can start at a different line.
+     */
+    private static final int NOISE_EXTRA_LINES = 61;
+
+    private final int width;
+
+    private final int height;
+
+    private final int pitch;
+
+    private final Pattern pattern;
+
+    /**
+     * Two bar-pattern lines back to back, so any horizontal scroll offset is a single contiguous copy.
+     */
+    private final ByteBuffer barsLine;
+
+    /**
+     * Precomputed noise, for the noise pattern.
+     */
+    private final ByteBuffer noise;
+
+    private final SplittableRandom random = new SplittableRandom(0);
+
+    private long frameNumber;
+
+    SyntheticFrameGenerator(int width, int height, Pattern pattern) {
+        this.width = width;
+        this.height = height;
+        this.pitch = width * 4;
+        this.pattern = pattern;
+        this.barsLine = ByteBuffer.allocateDirect(pitch * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int x = 0; x < width * 2; x++) {
+            barsLine.putInt(x * 4, BAR_COLOURS[(x % width) * BAR_COLOURS.length / width]);
+        }
+        if (pattern == Pattern.NOISE) {
+            noise = ByteBuffer.allocateDirect(pitch * (height + NOISE_EXTRA_LINES)).order(ByteOrder.LITTLE_ENDIAN);
+            // The size is a multiple of 4, but not always of 8, so the last pixel may need an int of its own
+            int longs = noise.capacity() & ~7;
+            for (int i = 0; i < longs; i += 8) {
+                noise.putLong(i, random.nextLong() | 0xff000000ff000000L);
+            }
+            if (longs < noise.capacity()) {
+                noise.putInt(longs, random.nextInt() | 0xff000000);
+            }
+        } else {
+            noise = null;
+        }
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    /**
+     * Generate the next frame.
+     *
+     * @param buffer buffer to fill, must be at least width x height x 4 bytes with a pitch of width x 4
+     */
+    void nextFrame(ByteBuffer buffer) {
+        ByteBuffer target = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        target.clear();
+        switch (pattern) {
+            case BARS:
+                int offset = (int) ((frameNumber * SCROLL_SPEED) % width) * 4;
+                ByteBuffer line = barsLine.duplicate();
+                for (int y = 0; y < height; y++) {
+                    line.limit(offset + pitch).position(offset);
+                    target.limit(y * pitch + pitch).position(y * pitch);
+                    target.put(line);
+                }
+                break;
+            case NOISE:
+                int start = random.nextInt(NOISE_EXTRA_LINES) * pitch;
+                ByteBuffer source = noise.duplicate();
+                source.limit(start + pitch * height).position(start);
+                target.put(source);
+                break;
+            case STATIC:
+                if (frameNumber == 0) {
+                    ByteBuffer bars = barsLine.duplicate();
+                    for (int y = 0; y < height; y++) {
+                        bars.limit(pitch).position(0);
+                        target.limit(y * pitch + pitch).position(y * pitch);
+                        target.put(bars);
+                    }
+                }
+                int squaresX = Math.max(1, width / SQUARE_SIZE);
+                int squaresY = Math.max(1, height / SQUARE_SIZE);
+                long square = frameNumber / 25;
+                int squareX = (int) (square % squaresX) * SQUARE_SIZE;
+                int squareY = (int) ((square / squaresX) % squaresY) * SQUARE_SIZE;
+                int colour = (frameNumber & 1) == 0 ? 0xffffffff : 0xff000000 | (int) (frameNumber * 0x010307);
+                for (int y = squareY; y < Math.min(squareY + SQUARE_SIZE, height); y++) {
+                    for (int x = squareX; x < Math.min(squareX + SQUARE_SIZE, width); x++) {
+                        target.putInt(y * pitch + x * 4, colour);
+                    }
+                }
+                break;
+        }
+        frameNumber++;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import java.util.List;
+
+/**
+ * Soak and throughput test for the render path, using a {@link SyntheticVideoSource} instead of LibVLC.
+ * <p>
+ * No LibVLC, media or GPU is required - on a CI machine run it with the Monocle headless platform (see the "headless"
+ * Maven profile):
+ * <pre>
+ *   -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw
+ * </pre>
+ * Command-line arguments, all optional:
+ * <pre>
+ *   [resolution] [frame-rate] [pattern] [seconds] [max-bytes-per-frame] [render-backend]
+ * </pre>
+ * e.g. "3840x2160 120 noise 600" - a frame rate of zero delivers frames as fast as possible, a duration of zero runs
+ * until the application is closed.
+ * <p>
+ * Statistics are written to the console every few seconds, including the number of bytes allocated on the JavaFX
+ * application thread by each tick of the render path.
+ * <p>
+ * If a maximum number of bytes per frame is given, the process exits with a non-zero status if the render path ever
+ * allocates more than that on average during a reporting interval (the first interval is excluded, to allow for
+ * warm-up) - e.g. "1920x1080 60 bars 60 64" to check the render path is allocation-free.
+ * <p>
+ * The render backend is one of "canvas" (the default), "imageview" or "layers", see {@link RenderBackend} - e.g.
+ * "1920x1080 60 bars 60 -1 imageview".
+ */
+public class SyntheticSoakTest extends Application {
+
+    private static final long REPORT_INTERVAL = 5000000000L;
+
+    private final VideoFrames videoFrames = new VideoFrames();
+
+    private SyntheticVideoSource source;
+
+    private AnimationTimer timer;
+
+    private static volatile boolean allocationBudgetExceeded;
+
+    @Override
+    public void start(Stage stage) {
+        List<String> params = getParameters().getRaw();
+        int[] size = Benchmarks.parseResolution(params.size() > 0 ? params.get(0) : "1920x1080");
+        double frameRate = params.size() > 1 ? Double.parseDouble(params.get(1)) : 60.0;
+        SyntheticFrameGenerator.Pattern pattern = SyntheticFrameGenerator.Pattern.valueOf(params.size() > 2 ? params.get(2).toUpperCase() : "BARS");
+        long seconds = params.size() > 3 ? Long.parseLong(params.get(3)) : 0;
+        long maxBytesPerFrame = params.size() > 4 ? Long.parseLong(params.get(4)) : -1;
+        RenderBackend renderBackend = params.size() > 5 ? RenderBackend.fromName(params.get(5)) : RenderBackend.CANVAS;
+
+        System.out.printf("Synthetic source: %dx%d @ %.1f fps, %s, %s%n", size[0], size[1], frameRate, pattern, renderBackend);
+
+        videoFrames.setDetectDirtyRegions(pattern == SyntheticFrameGenerator.Pattern.STATIC);
+        videoFrames.scheduler().setFrameRate(frameRate);
+
+        VideoView videoView = renderBackend.createView();
+        FrameStats stats = videoFrames.stats();
+        stats.register(getClass().getSimpleName());
+
+        stage.setTitle("vlcj JavaFX synthetic soak test");
+        stage.setScene(new Scene(videoView.node(), 1280, 720, Color.BLACK));
+        stage.setOnCloseRequest(windowEvent -> Platform.exit());
+        stage.show();
+
+        long finish = seconds > 0 ? System.nanoTime() + seconds * 1000000000L : Long.MAX_VALUE;
+
+        AllocationProbe allocations = new AllocationProbe();
+
+        timer = new AnimationTimer() {
+            private long nextReport = System.nanoTime() + REPORT_INTERVAL;
+            private long ticks;
+            private int reports;
+
+            @Override
+            public void handle(long now) {
+                ticks++;
+                allocations.begin();
+                videoView.renderIfNeeded(videoFrames.swapFrame(), stats);
+                allocations.end();
+                if (now >= nextReport) {
+                    nextReport = now + REPORT_INTERVAL;
+                    Runtime runtime = Runtime.getRuntime();
+                    System.out.printf("Delivered: %d, presented: %d, repeated: %d, dropped: %d, ticks: %d, skipped: %d, render p99: %.3f ms, cadence p99: %.1f ms, upload: %.1f MB/s, alloc: %.1f B/frame (max %d), heap: %d MB%n",
+                        stats.getFramesDelivered(), stats.getFramesPresented(), stats.getFramesRepeated(), stats.getFramesDropped(), ticks, stats.getRendersSkipped(),
+                        stats.getRenderTimeP99() / 1e6, stats.getCadenceErrorP99() / 1e6, stats.getUploadBytesPerSecond() / (1024 * 1024),
+                        allocations.mean(), allocations.max(),
+                        (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+                    if (maxBytesPerFrame >= 0 && reports++ > 0 && allocations.mean() > maxBytesPerFrame) {
+                        System.err.printf("Render path allocated %.1f bytes per frame, exceeding the maximum of %d%n", allocations.mean(), maxBytesPerFrame);
+                        allocationBudgetExceeded = true;
+                    }
+                    allocations.reset();
+                }
+                if (now >= finish) {
+                    Platform.exit();
+                }
+            }
+        };
+
+        source = new SyntheticVideoSource(size[0], size[1], frameRate, pattern, videoFrames.bufferFormatCallback(), videoFrames.renderCallback());
+        source.start();
+        timer.start();
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        timer.stop();
+        source.stop();
+    }
+
+    /**
+     * Application entry point.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        Application.launch(args);
+        if (allocationBudgetExceeded) {
+            System.exit(1);
+        }
+    }
+}
+
+// Launch via this class to avoid module system headaches.
+class SyntheticSoakTestLauncher {public static void main(String[] args) {SyntheticSoakTest.main(args);}}
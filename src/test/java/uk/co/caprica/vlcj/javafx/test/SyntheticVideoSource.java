@@ -0,0 +1,124 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormatCallback;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.RenderCallback;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A pure-Java stand-in for LibVLC that drives the video surface callbacks with synthetic frames.
+ * <p>
+ * The callbacks are invoked exactly as a CallbackVideoSurface would - {@link BufferFormatCallback#getBufferFormat},
+ * then {@link BufferFormatCallback#allocatedBuffers} with buffers sized according to the returned format, then
+ * {@link RenderCallback#display} for each frame on a dedicated thread (the media player passed to the display
+ * callback is always <code>null</code>).
+ * <p>
+ * Frames are paced at the requested frame rate against absolute deadlines, so the rate does not drift. If the frame
+ * rate is zero, frames are delivered as fast as the callbacks will accept them, for throughput testing.
+ */
+final class SyntheticVideoSource {
+
+    private final SyntheticFrameGenerator generator;
+
+    private final double frameRate;
+
+    private final BufferFormatCallback bufferFormatCallback;
+
+    private final RenderCallback renderCallback;
+
+    private volatile boolean running;
+
+    private volatile long frames;
+
+    private Thread thread;
+
+    /**
+     * Create a synthetic video source.
+     *
+     * @param width width of the video, in pixels
+     * @param height height of the video, in pixels
+     * @param frameRate frames per second, or zero for as fast as possible
+     * @param pattern picture to generate
+     * @param bufferFormatCallback callback used to negotiate the buffer format
+     * @param renderCallback callback used to deliver each frame
+     */
+    SyntheticVideoSource(int width, int height, double frameRate, SyntheticFrameGenerator.Pattern pattern, BufferFormatCallback bufferFormatCallback, RenderCallback renderCallback) {
+        this.generator = new SyntheticFrameGenerator(width, height, pattern);
+        this.frameRate = frameRate;
+        this.bufferFormatCallback = bufferFormatCallback;
+        this.renderCallback = renderCallback;
+    }
+
+    synchronized void start() {
+        if (thread == null) {
+            running = true;
+            thread = new Thread(this::run, "SyntheticVideoSource");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    synchronized void stop() throws InterruptedException {
+        if (thread != null) {
+            running = false;
+            thread.join();
+            thread = null;
+        }
+    }
+
+    /**
+     * Get the number of frames delivered so far.
+     *
+     * @return number of frames
+     */
+    long frames() {
+        return frames;
+    }
+
+    private void run() {
+        BufferFormat bufferFormat = bufferFormatCallback.getBufferFormat(generator.width(), generator.height());
+        if (!"RV32".equals(bufferFormat.getChroma()) || bufferFormat.getPitches()[0] != generator.width() * 4) {
+            throw new IllegalStateException("Only tightly-packed RV32 buffer formats are supported: " + bufferFormat);
+        }
+        ByteBuffer[] buffers = new ByteBuffer[bufferFormat.getPlaneCount()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(bufferFormat.getPitches()[i] * bufferFormat.getLines()[i]);
+        }
+        bufferFormatCallback.allocatedBuffers(buffers);
+        long period = frameRate > 0 ? Math.round(1000000000.0 / frameRate) : 0;
+        long deadline = System.nanoTime();
+        while (running) {
+            generator.nextFrame(buffers[0]);
+            renderCallback.display(null, buffers, bufferFormat);
+            frames++;
+            if (period > 0) {
+                deadline += period;
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(remaining);
+                }
+            }
+        }
+    }
+}
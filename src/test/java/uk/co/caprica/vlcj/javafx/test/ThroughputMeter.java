@@ -0,0 +1,80 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+/**
+ * Measures an amount per second (e.g. bytes uploaded per second), over consecutive one second windows.
+ * <p>
+ * Not thread-safe, intended to be used only on the JavaFX application thread.
+ */
+final class ThroughputMeter {
+
+    private static final long WINDOW = 1000000000L;
+
+    private long windowStart = System.nanoTime();
+
+    private long windowAmount;
+
+    private long total;
+
+    private double rate;
+
+    /**
+     * Record an amount.
+     *
+     * @param amount amount to add
+     */
+    void add(long amount) {
+        windowAmount += amount;
+        total += amount;
+        long now = System.nanoTime();
+        long elapsed = now - windowStart;
+        if (elapsed >= WINDOW) {
+            rate = windowAmount * (double) WINDOW / elapsed;
+            windowAmount = 0;
+            windowStart = now;
+        }
+    }
+
+    /**
+     * Get the rate measured over the most recently completed window.
+     *
+     * @return amount per second
+     */
+    double rate() {
+        return rate;
+    }
+
+    /**
+     * Get the total amount recorded since the last reset.
+     *
+     * @return total
+     */
+    long total() {
+        return total;
+    }
+
+    void reset() {
+        windowStart = System.nanoTime();
+        windowAmount = 0;
+        total = 0;
+        rate = 0;
+    }
+}
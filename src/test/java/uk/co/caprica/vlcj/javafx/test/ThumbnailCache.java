@@ -0,0 +1,446 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.media.MediaRef;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormatCallback;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.RenderCallback;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.format.RV32BufferFormat;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A cache of thumbnails of the media playing in a media player, for previewing a position before seeking to it.
+ * <p>
+ * The thumbnails are extracted by a second, offscreen, media player at a low resolution, with no audio, seeking to the
+ * nearest key frame. The media is divided into a fixed number of time buckets, and there is one thumbnail per bucket.
+ * Each thumbnail is scaled to fit {@link #THUMBNAIL_WIDTH} by {@link #THUMBNAIL_HEIGHT}, preserving the aspect ratio of
+ * the video track, and centred with transparent bars either side.
+ * <p>
+ * The thumbnails are stored in a single off-heap buffer with a fixed number of slots, the least recently used
+ * thumbnail is replaced when it is full.
+ * <p>
+ * Extraction happens on a dedicated thread - the most recently requested bucket is always extracted first, then the
+ * buckets either side of it, so that moving the mouse along the timeline usually finds the thumbnail already cached. If
+ * the mouse moves faster than thumbnails can be extracted, the buckets it passed over are simply never extracted. The
+ * main media player and the JavaFX application thread never wait for an extraction.
+ */
+final class ThumbnailCache {
+
+    static final int THUMBNAIL_WIDTH = 160;
+
+    static final int THUMBNAIL_HEIGHT = 90;
+
+    private static final int THUMBNAIL_SIZE = THUMBNAIL_WIDTH * THUMBNAIL_HEIGHT * 4;
+
+    private static final Rectangle2D THUMBNAIL_BOUNDS = new Rectangle2D(0, 0, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+
+    /**
+     * Number of time buckets the media is divided into.
+     */
+    private static final int BUCKET_COUNT = 200;
+
+    /**
+     * Minimum size of a time bucket, in milliseconds, so that short media does not get a thumbnail every few frames.
+     */
+    private static final long MIN_BUCKET_MILLIS = 1000;
+
+    /**
+     * Number of thumbnails that can be cached.
+     */
+    private static final int CAPACITY = 64;
+
+    /**
+     * Number of buckets either side of the requested bucket to prefetch.
+     */
+    private static final int PREFETCH = 4;
+
+    /**
+     * Maximum time to wait for a frame after seeking, in milliseconds.
+     */
+    private static final long EXTRACT_TIMEOUT = 1000;
+
+    private final EmbeddedMediaPlayer thumbnailPlayer;
+
+    /**
+     * Thumbnail storage, each slot is a thumbnail in BGRA format.
+     */
+    private final ByteBuffer sprites = ByteBuffer.allocateDirect(CAPACITY * THUMBNAIL_SIZE);
+
+    /**
+     * Slot of each cached bucket, in least recently used order - guarded by this.
+     */
+    private final LinkedHashMap<Long, Integer> slots = new LinkedHashMap<>(CAPACITY, 0.75f, true);
+
+    /**
+     * Frame captured by the thumbnail player, before it is stored.
+     */
+    private final ByteBuffer staging = ByteBuffer.allocateDirect(THUMBNAIL_SIZE);
+
+    /**
+     * Generation of the seek waiting for a frame, or zero if none - a frame is only captured for the seek that is
+     * waiting for it.
+     */
+    private final AtomicLong capturing = new AtomicLong();
+
+    /**
+     * Generation of the last seek, only used by the extractor thread.
+     */
+    private long seekGeneration;
+
+    private final Semaphore frameCaptured = new Semaphore(0);
+
+    /**
+     * Buffer for the thumbnail image currently shown, only used on the JavaFX application thread.
+     */
+    private final ByteBuffer imageBuffer = ByteBuffer.allocateDirect(THUMBNAIL_SIZE);
+
+    private final PixelBuffer<ByteBuffer> pixelBuffer = new PixelBuffer<>(THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, imageBuffer, PixelFormat.getByteBgraPreInstance());
+
+    private final WritableImage image = new WritableImage(pixelBuffer);
+
+    private final Thread extractor = new Thread(this::extract, "thumbnail-extractor");
+
+    private volatile boolean running = true;
+
+    /**
+     * MRL of the media to extract thumbnails from, set when the main media player changes media.
+     */
+    private volatile String mrl;
+
+    /**
+     * MRL of the media loaded in the thumbnail player, only used by the extractor thread.
+     */
+    private String loadedMrl;
+
+    /**
+     * Size of the frames delivered by the thumbnail player, set when the buffer format is chosen for the video track.
+     */
+    private volatile int frameWidth = THUMBNAIL_WIDTH;
+
+    private volatile int frameHeight = THUMBNAIL_HEIGHT;
+
+    /**
+     * Time most recently requested, or -1 if none.
+     */
+    private volatile long requestedTime = -1;
+
+    /**
+     * Size of each time bucket for the current media, in milliseconds, or zero if thumbnails are not available yet.
+     */
+    private volatile long bucketMillis;
+
+    /**
+     * Length of the current media, in milliseconds.
+     */
+    private volatile long length;
+
+    private volatile Runnable onThumbnail;
+
+    /**
+     * Create a thumbnail cache.
+     *
+     * @param mediaPlayerFactory factory used to create the offscreen media player
+     * @param mediaPlayer main media player, thumbnails are extracted from whatever media it is playing
+     */
+    ThumbnailCache(MediaPlayerFactory mediaPlayerFactory, MediaPlayer mediaPlayer) {
+        thumbnailPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
+        thumbnailPlayer.videoSurface().set(mediaPlayerFactory.videoSurfaces().newVideoSurface(new ThumbnailBufferFormatCallback(), new ThumbnailRenderCallback(), true));
+
+        mediaPlayer.events().addMediaPlayerEventListener(new MediaPlayerEventAdapter() {
+            @Override
+            public void mediaChanged(MediaPlayer mediaPlayer, MediaRef media) {
+                mrl = mediaPlayer.media().info().mrl();
+                LockSupport.unpark(extractor);
+            }
+        });
+
+        extractor.setDaemon(true);
+        extractor.start();
+    }
+
+    /**
+     * Get the image that shows the selected thumbnail.
+     *
+     * @return image, updated in place by {@link #select(long)}
+     */
+    Image image() {
+        return image;
+    }
+
+    /**
+     * Set an action to run, on the JavaFX application thread, whenever a new thumbnail has been extracted.
+     *
+     * @param onThumbnail action
+     */
+    void setOnThumbnail(Runnable onThumbnail) {
+        this.onThumbnail = onThumbnail;
+    }
+
+    /**
+     * Show the thumbnail for a time in the {@link #image()}, if it is cached - and request it, and the thumbnails
+     * around it, if not.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     *
+     * @param time media time, in milliseconds
+     * @return <code>true</code> if the image now shows the thumbnail; <code>false</code> if it is not available yet
+     */
+    boolean select(long time) {
+        requestedTime = time;
+        LockSupport.unpark(extractor);
+        long bucketMillis = this.bucketMillis;
+        if (bucketMillis == 0) {
+            return false;
+        }
+        synchronized (this) {
+            Integer slot = slots.get(time / bucketMillis);
+            if (slot == null) {
+                return false;
+            }
+            // The pixel buffer may only be written inside the update callback, the render thread may be reading it
+            pixelBuffer.updateBuffer(pixBuf -> {
+                copySlot(slot, imageBuffer);
+                return THUMBNAIL_BOUNDS;
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Stop extracting thumbnails and release the offscreen media player.
+     */
+    void release() {
+        running = false;
+        LockSupport.unpark(extractor);
+        try {
+            extractor.join(EXTRACT_TIMEOUT * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thumbnailPlayer.controls().stop();
+        thumbnailPlayer.release();
+    }
+
+    private void extract() {
+        while (running) {
+            String mrl = this.mrl;
+            if (mrl != null && !mrl.equals(loadedMrl)) {
+                loadedMrl = mrl;
+                load(mrl);
+                continue;
+            }
+            long bucket = nextBucket();
+            if (bucket < 0) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                extract(bucket);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void load(String mrl) {
+        bucketMillis = 0;
+        synchronized (this) {
+            slots.clear();
+        }
+        if (start(mrl)) {
+            length = thumbnailPlayer.status().length();
+            // Thumbnails are not available at all for e.g. live streams
+            if (length > 0) {
+                bucketMillis = Math.max(MIN_BUCKET_MILLIS, length / BUCKET_COUNT);
+            }
+        }
+    }
+
+    private boolean start(String mrl) {
+        return thumbnailPlayer.media().startPaused(mrl, ":no-audio", ":no-spu", ":input-fast-seek");
+    }
+
+    /**
+     * Choose the next bucket to extract - the requested bucket if it is not already cached, otherwise the nearest
+     * bucket to it that is not already cached.
+     *
+     * @return bucket, or -1 if there is nothing to extract
+     */
+    private long nextBucket() {
+        long time = requestedTime;
+        long bucketMillis = this.bucketMillis;
+        if (time < 0 || bucketMillis == 0) {
+            return -1;
+        }
+        long requested = time / bucketMillis;
+        long lastBucket = (length - 1) / bucketMillis;
+        synchronized (this) {
+            for (int distance = 0; distance <= PREFETCH; distance++) {
+                if (requested + distance <= lastBucket && !slots.containsKey(requested + distance)) {
+                    return requested + distance;
+                }
+                if (requested - distance >= 0 && !slots.containsKey(requested - distance)) {
+                    return requested - distance;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void extract(long bucket) throws InterruptedException {
+        long bucketMillis = this.bucketMillis;
+        long generation = ++seekGeneration;
+        frameCaptured.drainPermits();
+        capturing.set(generation);
+        thumbnailPlayer.controls().setTime(bucket * bucketMillis + bucketMillis / 2);
+        boolean captured = frameCaptured.tryAcquire(EXTRACT_TIMEOUT, TimeUnit.MILLISECONDS);
+        if (!captured && !capturing.compareAndSet(generation, 0)) {
+            // A frame arrived just as the wait timed out, and it is still being copied
+            frameCaptured.acquire();
+            captured = true;
+        }
+        if (!captured) {
+            // Store a blank thumbnail, so that the bucket is not tried again and again
+            staging.clear();
+            while (staging.hasRemaining()) {
+                staging.putLong(0);
+            }
+            // The frame for the abandoned seek may still arrive, and would be taken for the frame of the next seek -
+            // starting the media again discards it
+            thumbnailPlayer.controls().stop();
+            if (!start(loadedMrl)) {
+                this.bucketMillis = 0;
+            }
+        }
+        synchronized (this) {
+            storeSlot(allocateSlot(bucket));
+        }
+        Runnable onThumbnail = this.onThumbnail;
+        if (captured && onThumbnail != null) {
+            Platform.runLater(onThumbnail);
+        }
+    }
+
+    /**
+     * Get a slot for a bucket, replacing the least recently used thumbnail if the cache is full.
+     * <p>
+     * Must be invoked while holding the lock.
+     */
+    private int allocateSlot(long bucket) {
+        int slot;
+        if (slots.size() < CAPACITY) {
+            slot = slots.size();
+        } else {
+            Iterator<Map.Entry<Long, Integer>> eldest = slots.entrySet().iterator();
+            slot = eldest.next().getValue();
+            eldest.remove();
+        }
+        slots.put(bucket, slot);
+        return slot;
+    }
+
+    private void storeSlot(int slot) {
+        ByteBuffer target = sprites.duplicate();
+        target.position(slot * THUMBNAIL_SIZE);
+        staging.clear();
+        target.put(staging);
+    }
+
+    private void copySlot(int slot, ByteBuffer target) {
+        ByteBuffer source = sprites.duplicate();
+        source.position(slot * THUMBNAIL_SIZE).limit((slot + 1) * THUMBNAIL_SIZE);
+        target.clear();
+        target.put(source);
+    }
+
+    private class ThumbnailBufferFormatCallback implements BufferFormatCallback {
+        @Override
+        public BufferFormat getBufferFormat(int sourceWidth, int sourceHeight) {
+            int width = THUMBNAIL_WIDTH;
+            int height = THUMBNAIL_HEIGHT;
+            if (sourceWidth > 0 && sourceHeight > 0) {
+                if (sourceWidth * THUMBNAIL_HEIGHT >= sourceHeight * THUMBNAIL_WIDTH) {
+                    height = Math.max(2, (int) ((long) THUMBNAIL_WIDTH * sourceHeight / sourceWidth) & ~1);
+                } else {
+                    width = Math.max(2, (int) ((long) THUMBNAIL_HEIGHT * sourceWidth / sourceHeight) & ~1);
+                }
+            }
+            frameWidth = width;
+            frameHeight = height;
+            return new RV32BufferFormat(width, height);
+        }
+
+        @Override
+        public void allocatedBuffers(ByteBuffer[] buffers) {
+        }
+    }
+
+    private class ThumbnailRenderCallback implements RenderCallback {
+        @Override
+        public void display(MediaPlayer mediaPlayer, ByteBuffer[] nativeBuffers, BufferFormat bufferFormat) {
+            // Only the first frame after each seek is wanted, and the staging buffer is not touched otherwise
+            long generation = capturing.get();
+            if (generation != 0 && capturing.compareAndSet(generation, 0)) {
+                stage(nativeBuffers[0]);
+                frameCaptured.release();
+            }
+        }
+
+        /**
+         * Copy a frame to the staging buffer, centred, with transparent bars either side if it is narrower or shorter
+         * than a thumbnail.
+         */
+        private void stage(ByteBuffer source) {
+            int width = frameWidth;
+            int height = frameHeight;
+            int left = (THUMBNAIL_WIDTH - width) / 2;
+            int top = (THUMBNAIL_HEIGHT - height) / 2;
+            staging.clear();
+            while (staging.hasRemaining()) {
+                staging.putLong(0);
+            }
+            for (int row = 0; row < height; row++) {
+                source.limit((row + 1) * width * 4).position(row * width * 4);
+                staging.position(((top + row) * THUMBNAIL_WIDTH + left) * 4);
+                staging.put(source);
+            }
+            source.clear();
+        }
+    }
+}
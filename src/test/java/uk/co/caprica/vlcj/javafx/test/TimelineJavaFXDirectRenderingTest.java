@@ -33,7 +33,8 @@ import javafx.util.Duration;
 public class TimelineJavaFXDirectRenderingTest extends JavaFXDirectRenderingTest {
 
     /**
-     *
+     * Rate at which the timer checks for a new frame - this is not the video frame rate, the presentation scheduler
+     * decides which tick each frame is presented on, so this only needs to match the display refresh rate.
      */
     private static final double FPS = 60.0;
 
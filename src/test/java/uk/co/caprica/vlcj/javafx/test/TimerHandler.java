@@ -6,26 +6,27 @@ import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
 /**
  * A media player event listener dedicated to managing the repaint timer.
  * <p>
- * No need to consume CPU if paused/stopped.
+ * No need to consume CPU if paused/stopped - the {@link PresentationManager} also keeps the timer paused while the
+ * video can not be seen.
  */
 final class TimerHandler extends MediaPlayerEventAdapter {
 
-    private final JavaFXDirectRenderingTest application;
+    private final PresentationManager presentationManager;
 
-    TimerHandler(JavaFXDirectRenderingTest application) {
-        this.application = application;
+    TimerHandler(PresentationManager presentationManager) {
+        this.presentationManager = presentationManager;
     }
 
     private void startTimer() {
-        application.startTimer();
+        presentationManager.playbackStarted();
     }
 
     private void pauseTimer() {
-        application.pauseTimer();
+        presentationManager.playbackPaused();
     }
 
     private void stopTimer() {
-        application.stopTimer();
+        presentationManager.playbackStopped();
     }
 
     @Override
@@ -0,0 +1,122 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.util.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the scheduling jitter of each of the timer implementations used by the demo applications.
+ * <p>
+ * Each sample is the time spent waiting for the next timer tick on the JavaFX application thread, so the sample
+ * distribution is centred on the timer period and its spread is the jitter - look at the percentiles, not the mean.
+ * A tick that arrives while the previous one is still being consumed shows up as a near-zero sample.
+ * <p>
+ * This measures the jitter as seen by the JavaFX application thread, which includes the hand-off to that thread - the
+ * {@link NanoTimer} also records the jitter of its own pacing thread, this is printed at the end of each trial.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimerJitterBenchmark {
+
+    private static final double FPS = 60.0;
+
+    @Param({"timeline", "animation", "nano"})
+    public String timer;
+
+    private final Semaphore ticks = new Semaphore(0);
+
+    private Runnable stop;
+
+    private NanoTimer nanoTimer;
+
+    @Setup
+    public void setUp() {
+        Benchmarks.startToolkit();
+        Benchmarks.runAndWait(() -> {
+            switch (timer) {
+                case "animation":
+                    AnimationTimer animationTimer = new AnimationTimer() {
+                        @Override
+                        public void handle(long now) {
+                            ticks.release();
+                        }
+                    };
+                    animationTimer.start();
+                    stop = animationTimer::stop;
+                    break;
+                case "nano":
+                    nanoTimer = new NanoTimer(1000.0 / FPS) {
+                        @Override
+                        protected void onSucceeded() {
+                            ticks.release();
+                        }
+                    };
+                    nanoTimer.reset();
+                    nanoTimer.start();
+                    stop = nanoTimer::cancel;
+                    break;
+                case "timeline":
+                default:
+                    Timeline timeline = new Timeline(new KeyFrame(Duration.millis(1000.0 / FPS), event -> ticks.release()));
+                    timeline.setCycleCount(Timeline.INDEFINITE);
+                    timeline.play();
+                    stop = timeline::stop;
+                    break;
+            }
+        });
+        ticks.drainPermits();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Benchmarks.runAndWait(stop);
+        if (nanoTimer != null) {
+            System.out.printf("%nPacing thread jitter: p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                nanoTimer.getJitterP50() / 1e6, nanoTimer.getJitterP99() / 1e6, nanoTimer.getJitterMax() / 1e6);
+        }
+    }
+
+    @Benchmark
+    public void awaitTick() throws InterruptedException {
+        ticks.acquire();
+    }
+}
@@ -22,7 +22,7 @@ class VideoControlsPane extends BorderPane {
     private final Slider brightnessSlider;
     private final Slider contrastSlider;
 
-    VideoControlsPane(MediaPlayer mediaPlayer) {
+    VideoControlsPane(MediaPlayer mediaPlayer, MediaPlayerCommands commands) {
         GridPane grid = new GridPane();
         grid.setPadding(new Insets(16));
 
@@ -61,10 +61,11 @@ class VideoControlsPane extends BorderPane {
 
         setCenter(grid);
 
-        hueSlider.valueProperty().addListener((obs, oldValue, newValue) -> mediaPlayer.video().setHue(newValue.floatValue()));
-        saturationSlider.valueProperty().addListener((obs, oldValue, newValue) -> mediaPlayer.video().setSaturation(newValue.floatValue()));
-        brightnessSlider.valueProperty().addListener((obs, oldValue, newValue) -> mediaPlayer.video().setBrightness(newValue.floatValue()));
-        contrastSlider.valueProperty().addListener((obs, oldValue, newValue) -> mediaPlayer.video().setContrast(newValue.floatValue()));
+        // Dragging a slider changes the value far more often than LibVLC can apply it, only the latest value is applied
+        hueSlider.valueProperty().addListener((obs, oldValue, newValue) -> commands.submitLatest("setHue", () -> mediaPlayer.video().setHue(newValue.floatValue())));
+        saturationSlider.valueProperty().addListener((obs, oldValue, newValue) -> commands.submitLatest("setSaturation", () -> mediaPlayer.video().setSaturation(newValue.floatValue())));
+        brightnessSlider.valueProperty().addListener((obs, oldValue, newValue) -> commands.submitLatest("setBrightness", () -> mediaPlayer.video().setBrightness(newValue.floatValue())));
+        contrastSlider.valueProperty().addListener((obs, oldValue, newValue) -> commands.submitLatest("setContrast", () -> mediaPlayer.video().setContrast(newValue.floatValue())));
     }
 
     private class VideoControlLabel extends Label {
@@ -0,0 +1,422 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormatCallback;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.RenderCallback;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The video frame callbacks, and the JavaFX side of the frame handoff.
+ * <p>
+ * The callbacks are usually invoked by LibVLC via a {@link uk.co.caprica.vlcj.player.embedded.videosurface.CallbackVideoSurface},
+ * but they can just as well be driven by a {@link SyntheticVideoSource}.
+ */
+final class VideoFrames {
+
+    /**
+     * Standard pixel format for the video buffer.
+     */
+    private final WritablePixelFormat<ByteBuffer> pixelFormat = PixelFormat.getByteBgraPreInstance();
+
+    private final BufferFormatCallback bufferFormatCallback = new JavaFxBufferFormatCallback();
+
+    private final RenderCallback renderCallback = new JavaFxRenderCallback();
+
+    /**
+     * Fixed video buffer width and height, or zero to use the size of the video.
+     */
+    private final int fixedWidth;
+
+    private final int fixedHeight;
+
+    /**
+     * Chooses the buffer size if it is not fixed.
+     */
+    private final DecodeSize decodeSize = new DecodeSize();
+
+    private int bufferWidth;
+
+    private int bufferHeight;
+
+    /**
+     * Format of the video buffers requested from LibVLC.
+     */
+    private volatile DecodeFormat decodeFormat = DecodeFormat.RV32;
+
+    /**
+     * Converts each frame to RGB, if the video buffers are in a YUV format.
+     */
+    private YuvConverter converter;
+
+    /**
+     * Video frame buffers shared between the native thread and the JavaFX application thread.
+     */
+    private volatile SwapChain swapChain;
+
+    /**
+     * Frame accounting and timing statistics.
+     */
+    private final FrameStats stats = new FrameStats();
+
+    /**
+     * Decides when each new frame should be presented.
+     */
+    private final PresentationScheduler scheduler = new PresentationScheduler(stats);
+
+    /**
+     * Whether or not to copy and upload only the parts of each video frame that changed.
+     */
+    private volatile boolean detectDirtyRegions;
+
+    /**
+     * Whether or not new frames are being ignored, because the video can not be seen.
+     */
+    private volatile boolean suspended;
+
+    /**
+     * Whether or not to draw a {@link FrameMarker} into each frame.
+     */
+    private volatile boolean markFrames;
+
+    private WritableImage img;
+
+    /**
+     * Whether or not the frame being presented must be discarded, see {@link #clear()}.
+     */
+    private volatile boolean cleared;
+
+    /**
+     * Optional action invoked by the native thread after each frame is delivered.
+     */
+    private volatile Runnable onFrameDelivered;
+
+    /**
+     * Sequence number of the last frame delivered, used only by the native thread.
+     */
+    private long sequence;
+
+    VideoFrames() {
+        this(0, 0);
+    }
+
+    /**
+     * Create video frames with a fixed size, LibVLC will scale the video to this size.
+     * <p>
+     * Otherwise the size is chosen by the {@link DecodeSize} - the source size, unless a viewport is set.
+     *
+     * @param width width of each frame, or zero to use the video size
+     * @param height height of each frame, or zero to use the video size
+     */
+    VideoFrames(int width, int height) {
+        this.fixedWidth = width;
+        this.fixedHeight = height;
+    }
+
+    BufferFormatCallback bufferFormatCallback() {
+        return bufferFormatCallback;
+    }
+
+    RenderCallback renderCallback() {
+        return renderCallback;
+    }
+
+    private class JavaFxBufferFormatCallback implements BufferFormatCallback {
+        @Override
+        public BufferFormat getBufferFormat(int sourceWidth, int sourceHeight) {
+            FrameEvents.BufferFormat event = new FrameEvents.BufferFormat();
+            event.begin();
+            if (fixedWidth > 0 && fixedHeight > 0) {
+                bufferWidth = fixedWidth;
+                bufferHeight = fixedHeight;
+            } else {
+                // LibVLC scales the video to whatever size is asked for here, so there is no need to decode a larger
+                // buffer than is actually displayed
+                decodeSize.negotiate(sourceWidth, sourceHeight);
+                bufferWidth = decodeSize.width();
+                bufferHeight = decodeSize.height();
+            }
+
+            DecodeFormat format = decodeFormat;
+            BufferFormat bufferFormat = format.bufferFormat(bufferWidth, bufferHeight);
+            converter = format.isYuv() ? new YuvConverter(format, bufferWidth, bufferHeight, bufferFormat.getPitches(), true) : null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.sourceWidth = sourceWidth;
+                event.sourceHeight = sourceHeight;
+                event.width = bufferWidth;
+                event.height = bufferHeight;
+                event.format = format.name();
+                event.commit();
+            }
+            return bufferFormat;
+        }
+
+        @Override
+        public void allocatedBuffers(ByteBuffer[] buffers) {
+            FrameEvents.AllocatedBuffers event = new FrameEvents.AllocatedBuffers();
+            event.begin();
+            // The native video buffer is no longer used directly for the image buffer, instead each frame is copied
+            // into the back buffer of the swap chain so that LibVLC can never write to the frame currently being
+            // presented
+            swapChain = new SwapChain(bufferWidth, bufferHeight, pixelFormat);
+            event.end();
+            if (event.shouldCommit()) {
+                for (ByteBuffer buffer : buffers) {
+                    event.nativeBytes += buffer.capacity();
+                }
+                event.swapChainBytes = (long) bufferWidth * bufferHeight * 4 * SwapChain.BUFFER_COUNT;
+                event.commit();
+            }
+        }
+
+    }
+
+    // The native thread only publishes the new frame, it is picked up by whichever timer has been chosen
+    private class JavaFxRenderCallback implements RenderCallback {
+        @Override
+        public void display(MediaPlayer mediaPlayer, ByteBuffer[] nativeBuffers, BufferFormat bufferFormat) {
+            long delivered = System.nanoTime();
+            FrameEvents.FrameDisplay event = new FrameEvents.FrameDisplay();
+            event.begin();
+            sequence++;
+            boolean suspended = VideoFrames.this.suspended;
+            SwapChain swapChain = VideoFrames.this.swapChain;
+            boolean replaced;
+            if (suspended || swapChain == null) {
+                // Nobody will ever see this frame (or the frames were cleared), so it is not even copied
+                replaced = true;
+            } else if (converter != null) {
+                swapChain.stamp(sequence, delivered, markFrames);
+                replaced = swapChain.publish(converter, nativeBuffers);
+            } else {
+                swapChain.stamp(sequence, delivered, markFrames);
+                replaced = swapChain.publish(nativeBuffers[0], detectDirtyRegions);
+            }
+            stats.frameDelivered(replaced);
+            event.end();
+            if (event.shouldCommit()) {
+                event.sequence = sequence;
+                event.replaced = replaced;
+                event.suspended = suspended;
+                event.commit();
+            }
+            Runnable onFrameDelivered = VideoFrames.this.onFrameDelivered;
+            if (onFrameDelivered != null) {
+                onFrameDelivered.run();
+            }
+        }
+    }
+
+    /**
+     * Present the latest complete video frame, if there is a new one and it is due.
+     * <p>
+     * We only need to tell the pixel buffer which pixels were updated - usually all of them, but if dirty region
+     * detection is enabled it may be only a small part of the frame, or even nothing at all.
+     * <p>
+     * Must only be invoked on the JavaFX application thread, during a pulse.
+     *
+     * @return image to render, <code>null</code> if there has not been a frame yet
+     */
+    WritableImage swapFrame() {
+        return swapFrame(System.nanoTime());
+    }
+
+    /**
+     * Present the latest complete video frame, if there is a new one and it is due.
+     * <p>
+     * Must only be invoked on the JavaFX application thread, during a pulse.
+     *
+     * @param now current time, from {@link System#nanoTime()}
+     * @return image to render, <code>null</code> if there has not been a frame yet
+     */
+    WritableImage swapFrame(long now) {
+        discardIfCleared();
+        scheduler.tick(now);
+        SwapChain swapChain = this.swapChain;
+        long arrival = swapChain != null ? swapChain.readyTimestamp() : Long.MIN_VALUE;
+        if (arrival != Long.MIN_VALUE && !scheduler.present(now, arrival)) {
+            stats.frameHeld();
+        } else if (arrival != Long.MIN_VALUE && swapChain.swap()) {
+            long uploaded = 0;
+            DirtyRegion dirtyRegion = swapChain.frontDirtyRegion();
+            // A null rectangle from the callback would mean the whole buffer, so an empty region must skip the update
+            Rectangle2D updatedBuffer = dirtyRegion.toRectangle();
+            if (updatedBuffer != null) {
+                FrameEvents.FrameUpload event = new FrameEvents.FrameUpload();
+                event.begin();
+                swapChain.frontPixelBuffer().updateBuffer(pixBuf -> updatedBuffer);
+                uploaded = dirtyRegion.area() * 4;
+                dirtyRegion.clear();
+                event.end();
+                if (event.shouldCommit()) {
+                    event.bytes = uploaded;
+                    event.commit();
+                }
+            }
+            img = swapChain.frontImage();
+            stats.framePresented(uploaded);
+            long delivered = swapChain.frontDeliveryTime();
+            if (delivered != 0) {
+                stats.frameLatency(now - delivered, now);
+            }
+        } else if (img != null) {
+            stats.frameRepeated();
+        }
+        return img;
+    }
+
+    /**
+     * Keep presenting the current frame, even if there is a new one (e.g. because the upload budget for this pulse has
+     * already been used).
+     * <p>
+     * Must only be invoked on the JavaFX application thread, during a pulse.
+     *
+     * @return image to render, <code>null</code> if there has not been a frame yet
+     */
+    WritableImage holdFrame() {
+        discardIfCleared();
+        if (frameReady()) {
+            stats.frameHeld();
+        } else if (img != null) {
+            stats.frameRepeated();
+        }
+        return img;
+    }
+
+    /**
+     * Get the buffer containing the frame currently being presented.
+     * <p>
+     * Must only be invoked on the JavaFX application thread.
+     *
+     * @return frame buffer, <code>null</code> if there has not been a frame yet
+     */
+    ByteBuffer frontBuffer() {
+        SwapChain swapChain = this.swapChain;
+        return swapChain != null && img != null ? swapChain.frontBuffer() : null;
+    }
+
+    /**
+     * Discard the frame being presented and any new frame, e.g. because the media player has been stopped and is about
+     * to play something else - until the first frame of the new media is delivered, there is no frame to present.
+     * <p>
+     * Must only be invoked while no frames are being delivered, i.e. after the media player was stopped and before it
+     * plays again. It may be invoked on any thread.
+     */
+    void clear() {
+        // Playing again negotiates the buffer format again, with a new swap chain
+        swapChain = null;
+        cleared = true;
+    }
+
+    private void discardIfCleared() {
+        if (cleared) {
+            cleared = false;
+            img = null;
+        }
+    }
+
+    /**
+     * Is there a new frame that has not been presented yet?
+     *
+     * @return <code>true</code> if there is a new frame
+     */
+    boolean frameReady() {
+        SwapChain swapChain = this.swapChain;
+        return swapChain != null && swapChain.readyTimestamp() != Long.MIN_VALUE;
+    }
+
+    /**
+     * Get the size of a full video frame.
+     *
+     * @return frame size, in bytes, or zero if the video format is not known yet
+     */
+    long frameSize() {
+        SwapChain swapChain = this.swapChain;
+        return swapChain != null ? (long) swapChain.width() * swapChain.height() * 4 : 0;
+    }
+
+    void setDetectDirtyRegions(boolean detect) {
+        detectDirtyRegions = detect;
+    }
+
+    /**
+     * Suspend, or resume, copying new frames into the swap chain.
+     * <p>
+     * While suspended each delivered frame is counted as dropped, the frame presented when resuming is the last one
+     * published before suspending, until the next frame is delivered.
+     *
+     * @param suspend <code>true</code> to ignore new frames; <code>false</code> to publish them again
+     */
+    void setSuspended(boolean suspend) {
+        suspended = suspend;
+    }
+
+    /**
+     * Draw, or stop drawing, a machine-readable {@link FrameMarker} into each new frame, to measure the end-to-end delay
+     * outside of the process.
+     *
+     * @param mark <code>true</code> to draw the marker
+     */
+    void setMarkFrames(boolean mark) {
+        markFrames = mark;
+    }
+
+    /**
+     * Set the format of the video buffers to request from LibVLC.
+     * <p>
+     * This takes effect the next time the buffer format is negotiated. Dirty region detection only works with RV32.
+     *
+     * @param format decode format
+     */
+    void setDecodeFormat(DecodeFormat format) {
+        decodeFormat = format;
+    }
+
+    /**
+     * Set an action to invoke on the native video thread each time a frame is delivered.
+     * <p>
+     * The action must be very quick, it delays the frame.
+     *
+     * @param onFrameDelivered action, or <code>null</code> for none
+     */
+    void setOnFrameDelivered(Runnable onFrameDelivered) {
+        this.onFrameDelivered = onFrameDelivered;
+    }
+
+    FrameStats stats() {
+        return stats;
+    }
+
+    DecodeSize decodeSize() {
+        return decodeSize;
+    }
+
+    PresentationScheduler scheduler() {
+        return scheduler;
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Renders the current video frame, scaled to fit, along with the statistics and animation overlays, to a JavaFX
+ * Canvas.
+ * <p>
+ * This is kept separate from the application so that the render path can be exercised (e.g. benchmarked) without
+ * LibVLC.
+ * <p>
+ * Rendering is event-driven - see {@link #renderIfNeeded(Image, FrameStats)}, the canvas is only redrawn if there is a
+ * new frame, the canvas was resized, an overlay was changed, or the overlays need updating.
+ * <p>
+ * The render path does not allocate in the steady state - the overlay text is expensive to lay out and draw, so it is
+ * rasterised to a cached image only when its content changes, and that image is then drawn on every tick.
+ * <p>
+ * Must only be used on the JavaFX application thread.
+ */
+final class VideoRenderer {
+
+    private static final Color BLACK = new Color(0, 0, 0,1);
+    private static final Color WHITE = new Color(1,1,1,1);
+    private static final Font FONT = Font.font("Monospace", 40);
+
+    /**
+     * Minimum time between updates of the statistics overlay image, in nanoseconds.
+     */
+    static final long STATS_INTERVAL = 250000000L;
+
+    private static final String TITLE = "vlcj JavaFX PixelBuffer Win!";
+
+    // Overlay images are drawn with their text baseline at this offset from the top-left, leaving room for the outline
+    private static final double OVERLAY_X = 2;
+    private static final double OVERLAY_Y = 42;
+
+    private static final double STATS_WIDTH = 800;
+    private static final double STATS_HEIGHT = 560;
+
+    private static final double TITLE_WIDTH = 800;
+    private static final double TITLE_HEIGHT = 56;
+
+    private final Canvas canvas;
+
+    private boolean showStats = true;
+
+    private boolean showAnimation = true;
+
+    private final OverlayAnimation animation;
+
+    private final SnapshotParameters overlayParameters = new SnapshotParameters();
+
+    private final Canvas statsCanvas = new Canvas(STATS_WIDTH, STATS_HEIGHT);
+
+    private WritableImage statsImage;
+
+    private long statsUpdated;
+
+    private WritableImage titleImage;
+
+    /**
+     * Whether or not the canvas needs to be redrawn even if there is no new frame.
+     */
+    private boolean damaged = true;
+
+    /**
+     * The frame image that was last rendered.
+     */
+    private Image renderedImage;
+
+    VideoRenderer(Canvas canvas) {
+        this(canvas, new OverlayAnimation());
+    }
+
+    /**
+     * Create a renderer.
+     *
+     * @param canvas canvas to render to
+     * @param animation animation for the animation overlay, may be shared with other views
+     */
+    VideoRenderer(Canvas canvas, OverlayAnimation animation) {
+        this.canvas = canvas;
+        this.animation = animation;
+
+        animation.show();
+
+        overlayParameters.setFill(Color.TRANSPARENT);
+
+        canvas.widthProperty().addListener(observable -> invalidate());
+        canvas.heightProperty().addListener(observable -> invalidate());
+    }
+
+    /**
+     * Mark the canvas as needing to be redrawn on the next tick, even if there is no new frame.
+     */
+    void invalidate() {
+        damaged = true;
+    }
+
+    /**
+     * Render a frame, but only if something has changed since the last time.
+     * <p>
+     * The canvas needs to be redrawn if there is a new frame image, if it was invalidated, if the animation overlay is
+     * showing (since it is always moving), or if the statistics overlay is due to be updated. Otherwise drawing is
+     * skipped completely, so there is nothing new for the render thread to upload or draw either.
+     *
+     * @param img current video frame, may be <code>null</code>
+     * @param stats frame statistics
+     * @return <code>true</code> if the frame was rendered; <code>false</code> if rendering was skipped
+     */
+    boolean renderIfNeeded(Image img, FrameStats stats) {
+        if (!damaged && img == renderedImage && !showAnimation && !statsDue(System.nanoTime())) {
+            stats.renderSkipped();
+            return false;
+        }
+        render(img, stats);
+        return true;
+    }
+
+    /**
+     * Render a frame.
+     * <p>
+     * Needless to say, this method should run as quickly as possible.
+     *
+     * @param img current video frame, may be <code>null</code>
+     * @param stats frame statistics, the render time is recorded here and the statistics overlay is rendered from here
+     */
+    void render(Image img, FrameStats stats) {
+        long renderStart = System.nanoTime();
+
+        damaged = false;
+        renderedImage = img;
+
+        GraphicsContext g = canvas.getGraphicsContext2D();
+
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+
+        // The canvas must always be filled with background colour first since the rendered image may actually be
+        // smaller than the full canvas - otherwise we will end up with garbage in the borders on resize
+        g.setFill(BLACK);
+        g.fillRect(0, 0, width, height);
+
+        if (img != null) {
+            double imageWidth = img.getWidth();
+            double imageHeight = img.getHeight();
+
+            double sx = width / imageWidth;
+            double sy = height / imageHeight;
+
+            double sf = Math.min(sx, sy);
+
+            double scaledW = imageWidth * sf;
+            double scaledH = imageHeight * sf;
+
+            g.translate(
+                (width - scaledW) / 2,
+                (height - scaledH) / 2
+            );
+
+            if (sf != 1.0) {
+                g.scale(sf, sf);
+            }
+
+            g.drawImage(img, 0, 0);
+
+            if (showStats) {
+                if (statsDue(renderStart)) {
+                    updateStatsImage(stats);
+                    statsUpdated = renderStart;
+                }
+                g.drawImage(statsImage, 100 - OVERLAY_X, 200 - OVERLAY_Y);
+            }
+
+            if (showAnimation) {
+                g.setFill(Color.CORNSILK);
+                g.fillOval(
+                    animation.xProperty().get(),
+                    animation.yProperty().get(),
+                    40,
+                    40);
+
+                g.setGlobalAlpha(animation.opacityProperty().get());
+                g.drawImage(titleImage(), (imageWidth - TITLE_WIDTH) / 2, imageHeight - 120 - OVERLAY_Y);
+                g.setGlobalAlpha(1);
+            }
+
+            // Nothing else transforms this canvas, so restoring the identity avoids allocating a copy of the transform
+            g.setTransform(1, 0, 0, 1, 0, 0);
+        }
+
+        stats.renderTime(System.nanoTime() - renderStart);
+    }
+
+    private boolean statsDue(long now) {
+        return showStats && (statsImage == null || now - statsUpdated >= STATS_INTERVAL);
+    }
+
+    private void updateStatsImage(FrameStats stats) {
+        GraphicsContext g = statsCanvas.getGraphicsContext2D();
+        g.clearRect(0, 0, STATS_WIDTH, STATS_HEIGHT);
+        renderText(g, statsText(stats), OVERLAY_X, OVERLAY_Y);
+        statsImage = statsCanvas.snapshot(overlayParameters, statsImage);
+    }
+
+    /**
+     * Format the statistics overlay text.
+     *
+     * @param stats frame statistics
+     * @return overlay text
+     */
+    static String statsText(FrameStats stats) {
+        long elapsed = stats.elapsed();
+        LatencyHistogram renderTime = stats.renderTimeHistogram();
+        LatencyHistogram interval = stats.presentIntervalHistogram();
+        LatencyHistogram cadence = stats.cadenceErrorHistogram();
+        RollingLatency latency = stats.frameLatency();
+        return String.format(
+            "Decoded: %d\n" +
+            " Frames: %d\n" +
+            "Repeats: %d\n" +
+            "Dropped: %d\n" +
+            "Seconds: %d\n" +
+            "    FPS: %01.1f\n" +
+            " Render: %01.3f/%01.3f/%01.3f ms\n" +
+            "  Frame: %01.1f/%01.1f/%01.1f ms\n" +
+            "Cadence: %01.1f/%01.1f ms\n" +
+            "Latency: %01.1f/%01.1f/%01.1f ms\n" +
+            " Upload: %01.1f MB/s",
+            stats.getFramesDelivered(), stats.getFramesPresented(), stats.getFramesRepeated(), stats.getFramesDropped(),
+            elapsed / 1000000000L, stats.getFramesPresented() * 1e9 / elapsed,
+            renderTime.percentile(50) / 1e6, renderTime.percentile(99) / 1e6, renderTime.max() / 1e6,
+            interval.percentile(50) / 1e6, interval.percentile(99) / 1e6, interval.max() / 1e6,
+            cadence.percentile(99) / 1e6, cadence.max() / 1e6,
+            latency.recentP50() / 1e6, latency.recentP99() / 1e6, latency.recentMax() / 1e6,
+            stats.getUploadBytesPerSecond() / (1024 * 1024)
+        );
+    }
+
+    private WritableImage titleImage() {
+        if (titleImage == null) {
+            Canvas titleCanvas = new Canvas(TITLE_WIDTH, TITLE_HEIGHT);
+            GraphicsContext g = titleCanvas.getGraphicsContext2D();
+            g.setTextAlign(TextAlignment.CENTER);
+            renderText(g, TITLE, TITLE_WIDTH / 2, OVERLAY_Y);
+            titleImage = titleCanvas.snapshot(overlayParameters, null);
+        }
+        return titleImage;
+    }
+
+    /**
+     * A crude, but fast, renderer to draw outlined text.
+     * <p>
+     * Generally the approach here is faster than getting the text outline and stroking it.
+     *
+     * @param g
+     * @param text
+     * @param x
+     * @param y
+     */
+    private void renderText(GraphicsContext g, String text, double x, double y) {
+        g.setFont(FONT);
+        g.setFill(BLACK);
+        g.fillText(text, x - 1, y - 1);
+        g.fillText(text, x + 1, y - 1);
+        g.fillText(text, x - 1, y + 1);
+        g.fillText(text, x + 1, y + 1);
+        g.setFill(WHITE);
+        g.fillText(text, x, y);
+    }
+
+    void setShowStats(boolean show) {
+        showStats = show;
+        invalidate();
+    }
+
+    void setShowAnimation(boolean show) {
+        if (show != showAnimation) {
+            showAnimation = show;
+            if (show) {
+                animation.show();
+            } else {
+                animation.hide();
+            }
+        }
+        invalidate();
+    }
+
+    /**
+     * Pause or resume the animation overlay, e.g. while the canvas cannot be seen.
+     *
+     * @param suspended <code>true</code> to pause the animation; <code>false</code> to resume it
+     */
+    void setSuspended(boolean suspended) {
+        if (suspended) {
+            animation.pause();
+        } else {
+            animation.play();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.scene.image.Image;
+import javafx.scene.layout.Region;
+
+/**
+ * A surface that shows the video frames, and optionally the statistics and animation overlays.
+ * <p>
+ * There are different implementations, see {@link RenderBackend}, so that the cost of each approach can be compared -
+ * whichever is used, the same {@link FrameStats} are recorded.
+ * <p>
+ * Must only be used on the JavaFX application thread.
+ */
+interface VideoView {
+
+    /**
+     * Get the node to add to the scene graph.
+     * <p>
+     * The node is resizable, the video is scaled to fit it, preserving the aspect ratio.
+     *
+     * @return node
+     */
+    Region node();
+
+    /**
+     * Show a frame, but only if something has changed since the last time.
+     * <p>
+     * This is invoked on every tick of the timer, it records either the render time or a skipped render in the frame
+     * statistics.
+     *
+     * @param img current video frame, may be <code>null</code>
+     * @param stats frame statistics
+     * @return <code>true</code> if anything was rendered; <code>false</code> if rendering was skipped
+     */
+    boolean renderIfNeeded(Image img, FrameStats stats);
+
+    /**
+     * Make sure the view is redrawn on the next tick, even if there is no new frame.
+     */
+    void invalidate();
+
+    void setShowStats(boolean show);
+
+    void setShowAnimation(boolean show);
+
+    /**
+     * Pause or resume anything the view animates by itself, e.g. while the view cannot be seen.
+     *
+     * @param suspended <code>true</code> to pause; <code>false</code> to resume
+     */
+    void setSuspended(boolean suspended);
+}
@@ -0,0 +1,257 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A video wall - many media players in a grid, e.g. for a control room full of camera feeds.
+ * <p>
+ * All of the players share one media player factory, and all of the tiles are presented and rendered from one
+ * {@link AnimationTimer}, i.e. one pulse, rather than a timer per player.
+ * <p>
+ * Uploading a new frame to a texture is the expensive part of each pulse, so the uploads are limited by a per-pulse
+ * budget. The focused tile always gets every frame, the other tiles are throttled to a lower frame rate, and they take
+ * turns to be considered first so when the budget runs out it is not always the same tiles that miss out. Frames that
+ * are not presented because of the budget or throttling are counted as held in each tile's statistics.
+ * <p>
+ * Click a tile to focus it (the focused tile is also the only one with audio), double-click to enlarge it - while a
+ * tile is enlarged the other tiles are not presented at all.
+ * <p>
+ * Specify the MRLs to play on the command-line, one per tile.
+ */
+public class VideoWallTest extends Application {
+
+    private static final int MAX_TILES = 16;
+
+    /**
+     * Maximum number of bytes to upload per pulse (the focused tile is always uploaded, even over budget).
+     */
+    private static final long UPLOAD_BUDGET = 32 * 1024 * 1024;
+
+    /**
+     * Maximum frame rate for tiles that are not focused.
+     */
+    private static final double BACKGROUND_FRAME_RATE = 10.0;
+
+    private static final long BACKGROUND_PERIOD = Math.round(1000000000L / BACKGROUND_FRAME_RATE);
+
+    /**
+     * Interval between updates of the per-tile statistics.
+     */
+    private static final long STATS_INTERVAL = 500000000L;
+
+    private final List<VideoWallTile> tiles = new ArrayList<>();
+
+    private MediaPlayerFactory mediaPlayerFactory;
+
+    /**
+     * One queue for the commands to all of the media players, rather than a thread per tile.
+     */
+    private MediaPlayerCommands commands;
+
+    private AnimationTimer timer;
+
+    private StackPane root;
+
+    private GridPane grid;
+
+    private VideoWallTile focused;
+
+    private VideoWallTile enlarged;
+
+    /**
+     * Index of the tile to consider first for the next pulse (after the focused tile).
+     */
+    private int next;
+
+    @Override
+    public void start(Stage stage) {
+        List<String> mrls = getParameters().getRaw();
+        if (mrls.isEmpty()) {
+            System.err.println("Specify one or more MRLs to play");
+            Platform.exit();
+            return;
+        }
+        if (mrls.size() > MAX_TILES) {
+            mrls = mrls.subList(0, MAX_TILES);
+        }
+
+        mediaPlayerFactory = new MediaPlayerFactory();
+
+        commands = new MediaPlayerCommands("video-wall-commands");
+        commands.register(VideoWallTest.class.getSimpleName());
+
+        int columns = (int) Math.ceil(Math.sqrt(mrls.size()));
+        int rows = (mrls.size() + columns - 1) / columns;
+
+        grid = new GridPane();
+        for (int column = 0; column < columns; column++) {
+            ColumnConstraints constraints = new ColumnConstraints();
+            constraints.setPercentWidth(100.0 / columns);
+            grid.getColumnConstraints().add(constraints);
+        }
+        for (int row = 0; row < rows; row++) {
+            RowConstraints constraints = new RowConstraints();
+            constraints.setPercentHeight(100.0 / rows);
+            grid.getRowConstraints().add(constraints);
+        }
+
+        for (int i = 0; i < mrls.size(); i++) {
+            VideoWallTile tile = new VideoWallTile(i, mediaPlayerFactory, commands);
+            tiles.add(tile);
+            Node node = tile.node();
+            grid.add(node, i % columns, i / columns);
+            node.setOnMouseClicked(mouseEvent -> {
+                if (mouseEvent.getButton() == MouseButton.PRIMARY) {
+                    focus(tile);
+                    if (mouseEvent.getClickCount() == 2) {
+                        toggleEnlarged(tile);
+                    }
+                }
+            });
+        }
+
+        root = new StackPane(grid);
+
+        stage.setTitle("vlcj JavaFX video wall");
+        stage.setScene(new Scene(root, 1280, 720, Color.BLACK));
+        stage.setOnCloseRequest(windowEvent -> Platform.exit());
+        stage.show();
+
+        focus(tiles.get(0));
+
+        timer = new AnimationTimer() {
+            private long nextStats;
+
+            @Override
+            public void handle(long now) {
+                // The pulse timestamp is not necessarily from System.nanoTime(), which the presentation code expects
+                pulse(System.nanoTime());
+                if (now >= nextStats) {
+                    nextStats = now + STATS_INTERVAL;
+                    for (VideoWallTile tile : tiles) {
+                        tile.updateStats();
+                    }
+                }
+            }
+        };
+        timer.start();
+
+        for (int i = 0; i < tiles.size(); i++) {
+            tiles.get(i).play(mrls.get(i));
+        }
+    }
+
+    private void pulse(long now) {
+        long budget = UPLOAD_BUDGET;
+        if (focused != null) {
+            budget -= focused.pendingBytes();
+            focused.present(now);
+        }
+        int count = tiles.size();
+        for (int i = 0; i < count; i++) {
+            VideoWallTile tile = tiles.get((next + i) % count);
+            if (tile == focused) {
+                continue;
+            }
+            long pending = tile.pendingBytes();
+            boolean visible = enlarged == null || enlarged == tile;
+            boolean due = now - tile.lastPresented() >= BACKGROUND_PERIOD;
+            if (pending > 0 && visible && due && pending <= budget) {
+                budget -= pending;
+                tile.present(now);
+            } else {
+                tile.hold();
+            }
+        }
+        next = (next + 1) % count;
+        for (VideoWallTile tile : tiles) {
+            if (enlarged == null || enlarged == tile) {
+                tile.render();
+            }
+        }
+    }
+
+    private void focus(VideoWallTile tile) {
+        if (focused != null) {
+            focused.setFocused(false);
+        }
+        focused = tile;
+        focused.setFocused(true);
+    }
+
+    private void toggleEnlarged(VideoWallTile tile) {
+        if (enlarged == null) {
+            enlarged = tile;
+            // Adding the tile to the root moves it out of the grid, its grid constraints are kept for when it goes back
+            grid.setVisible(false);
+            root.getChildren().add(tile.node());
+        } else {
+            root.getChildren().remove(enlarged.node());
+            grid.getChildren().add(enlarged.node());
+            grid.setVisible(true);
+            enlarged = null;
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+        if (commands != null) {
+            commands.release();
+        }
+        for (VideoWallTile tile : tiles) {
+            tile.release();
+        }
+        if (mediaPlayerFactory != null) {
+            mediaPlayerFactory.release();
+        }
+    }
+
+    /**
+     * Application entry point.
+     *
+     * @param args MRLs to play, one per tile
+     */
+    public static void main(String[] args) {
+        Application.launch(args);
+    }
+}
+
+// Launch via this class to avoid module system headaches.
+class VideoWallTestLauncher {public static void main(String[] args) {VideoWallTest.main(args);}}
@@ -0,0 +1,171 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.control.Label;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+
+/**
+ * One tile of a {@link VideoWallTest} - a media player with its own video frames, canvas and statistics.
+ * <p>
+ * Must only be used on the JavaFX application thread, apart from the media player itself.
+ */
+final class VideoWallTile {
+
+    private static final String TILE_STYLE = "-fx-background-color: rgb(0, 0, 0); -fx-border-color: rgb(32, 32, 32); -fx-border-width: 2;";
+
+    private static final String FOCUSED_TILE_STYLE = "-fx-background-color: rgb(0, 0, 0); -fx-border-color: rgb(255, 200, 0); -fx-border-width: 2;";
+
+    private static final String STATS_STYLE = "-fx-text-fill: white; -fx-background-color: rgba(0, 0, 0, 0.6); -fx-padding: 2 6 2 6;";
+
+    private final int index;
+
+    private final EmbeddedMediaPlayer mediaPlayer;
+
+    /**
+     * Queue for commands to the media player, so native calls are never made on the JavaFX application thread - shared
+     * by all of the tiles.
+     */
+    private final MediaPlayerCommands commands;
+
+    /**
+     * Kind of the mute command for this tile, so muting coalesces per tile in the shared command queue.
+     */
+    private final Object muteCommand = new Object();
+
+    private final VideoFrames videoFrames = new VideoFrames();
+
+    private final VideoRenderer renderer;
+
+    /**
+     * Renegotiates the video buffer size when the tile is resized, e.g. enlarged.
+     */
+    private final DecodeSizeNegotiator decodeSizeNegotiator;
+
+    private final StackPane node;
+
+    private final Label statsLabel;
+
+    private WritableImage img;
+
+    private long lastPresented;
+
+    VideoWallTile(int index, MediaPlayerFactory mediaPlayerFactory, MediaPlayerCommands commands) {
+        this.index = index;
+        this.commands = commands;
+
+        mediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
+        mediaPlayer.videoSurface().set(mediaPlayerFactory.videoSurfaces().newVideoSurface(videoFrames.bufferFormatCallback(), videoFrames.renderCallback(), true));
+        mediaPlayer.controls().setRepeat(true);
+        mediaPlayer.audio().setMute(true);
+
+        Canvas canvas = new Canvas();
+        Pane canvasPane = new Pane(canvas);
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+
+        renderer = new VideoRenderer(canvas);
+        decodeSizeNegotiator = new DecodeSizeNegotiator(canvasPane, mediaPlayer, commands, videoFrames.decodeSize());
+        renderer.setShowStats(false);
+        renderer.setShowAnimation(false);
+
+        statsLabel = new Label();
+        statsLabel.setStyle(STATS_STYLE);
+        StackPane.setAlignment(statsLabel, Pos.TOP_LEFT);
+
+        node = new StackPane(canvasPane, statsLabel);
+        node.setStyle(TILE_STYLE);
+        node.setMinSize(0, 0);
+
+        videoFrames.stats().register(VideoWallTest.class.getSimpleName() + "-" + index);
+    }
+
+    void play(String mrl) {
+        commands.submit("play", () -> mediaPlayer.media().play(mrl));
+    }
+
+    /**
+     * Get the number of bytes that presenting the next frame would upload.
+     *
+     * @return number of bytes, or zero if there is no new frame
+     */
+    long pendingBytes() {
+        return videoFrames.frameReady() ? videoFrames.frameSize() : 0;
+    }
+
+    /**
+     * Present the new frame, if there is one.
+     *
+     * @param now pulse time, from {@link System#nanoTime()}
+     */
+    void present(long now) {
+        if (videoFrames.frameReady()) {
+            lastPresented = now;
+        }
+        img = videoFrames.swapFrame(now);
+    }
+
+    /**
+     * Keep presenting the current frame, even if there is a new one.
+     */
+    void hold() {
+        img = videoFrames.holdFrame();
+    }
+
+    void render() {
+        renderer.renderIfNeeded(img, videoFrames.stats());
+    }
+
+    void updateStats() {
+        FrameStats stats = videoFrames.stats();
+        statsLabel.setText(String.format("%d: delivered %d, presented %d, dropped %d, held %d",
+            index + 1, stats.getFramesDelivered(), stats.getFramesPresented(), stats.getFramesDropped(), stats.getFramesHeld()));
+    }
+
+    long lastPresented() {
+        return lastPresented;
+    }
+
+    void setFocused(boolean focused) {
+        node.setStyle(focused ? FOCUSED_TILE_STYLE : TILE_STYLE);
+        commands.submitLatest(muteCommand, "setMute", () -> mediaPlayer.audio().setMute(!focused));
+    }
+
+    Node node() {
+        return node;
+    }
+
+    /**
+     * Stop playing, and release the media player.
+     * <p>
+     * The shared command queue must have been released first.
+     */
+    void release() {
+        mediaPlayer.controls().stop();
+        mediaPlayer.release();
+    }
+}
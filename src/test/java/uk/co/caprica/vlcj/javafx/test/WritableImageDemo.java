@@ -2,7 +2,6 @@ package uk.co.caprica.vlcj.javafx.test;
 
 import javafx.animation.RotateTransition;
 import javafx.application.Application;
-import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
@@ -70,10 +69,16 @@ public class WritableImageDemo extends Application {
 
     private ImageView videoImageView;
 
+    /**
+     * Coalesces the per-frame buffer updates so at most one is ever waiting in the JavaFX event queue.
+     */
+    private final FrameSignal frameSignal = new FrameSignal(() -> videoPixelBuffer.updateBuffer(pb -> null));
+
     @Override
 	public void init() {
         mediaPlayerFactory = new MediaPlayerFactory();
         embeddedMediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
+        frameSignal.register(getClass().getSimpleName());
         embeddedMediaPlayer.videoSurface().set(new FXCallbackVideoSurface());
     }
 
@@ -145,9 +150,7 @@ public class WritableImageDemo extends Application {
     private class FXRenderCallback implements RenderCallback {
         @Override
         public void display(MediaPlayer mediaPlayer, ByteBuffer[] nativeBuffers, BufferFormat bufferFormat) {
-            Platform.runLater(() -> {
-                videoPixelBuffer.updateBuffer(pb -> null);
-            });
+            frameSignal.signal();
         }
     }
 
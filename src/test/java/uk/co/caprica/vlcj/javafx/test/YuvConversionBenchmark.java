@@ -0,0 +1,110 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import javafx.scene.image.PixelFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for publishing a video frame in each of the decode formats - for RV32 this is a copy of the frame, for the
+ * YUV formats it is the conversion to BGRA, in parallel or on a single thread.
+ * <p>
+ * This is the work done on the native video thread in the display() callback. It does not include the conversion
+ * LibVLC does in the decoder thread when it is asked for RV32, compare the decoder CPU usage with each format for that.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class YuvConversionBenchmark {
+
+    @Param({"1920x1080", "3840x2160"})
+    public String resolution;
+
+    @Param({"RV32", "I420", "NV12"})
+    public String format;
+
+    private ByteBuffer[] planes;
+
+    private YuvConverter parallelConverter;
+
+    private YuvConverter serialConverter;
+
+    private SwapChain swapChain;
+
+    @Setup
+    public void setUp() {
+        Benchmarks.startToolkit();
+        int[] size = Benchmarks.parseResolution(resolution);
+        DecodeFormat decodeFormat = DecodeFormat.valueOf(format);
+        BufferFormat bufferFormat = decodeFormat.bufferFormat(size[0], size[1]);
+        planes = new ByteBuffer[bufferFormat.getPlaneCount()];
+        for (int i = 0; i < planes.length; i++) {
+            int pitch = bufferFormat.getPitches()[i];
+            int lines = bufferFormat.getLines()[i];
+            planes[i] = ByteBuffer.allocateDirect(pitch * lines);
+            // Any content will do, the conversion cost does not depend on it
+            for (int y = 0; y < lines; y++) {
+                for (int x = 0; x < pitch; x++) {
+                    planes[i].put(y * pitch + x, (byte) (x + y * (i + 1)));
+                }
+            }
+        }
+        if (decodeFormat.isYuv()) {
+            parallelConverter = new YuvConverter(decodeFormat, size[0], size[1], bufferFormat.getPitches(), true);
+            serialConverter = new YuvConverter(decodeFormat, size[0], size[1], bufferFormat.getPitches(), false);
+        }
+        swapChain = new SwapChain(size[0], size[1], PixelFormat.getByteBgraPreInstance());
+    }
+
+    @Benchmark
+    public boolean publish() {
+        return publish(parallelConverter);
+    }
+
+    @Benchmark
+    public boolean publishSingleThreaded() {
+        return publish(serialConverter);
+    }
+
+    private boolean publish(YuvConverter converter) {
+        if (converter != null) {
+            return swapChain.publish(converter, planes);
+        } else {
+            return swapChain.publish(planes[0], false);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009, 2010, 2011, 2012, 2013, 2014, 2015 Caprica Software Limited.
+ */
+
+package uk.co.caprica.vlcj.javafx.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+
+/**
+ * Converts planar YUV 4:2:0 video frames to the premultiplied BGRA used by the video buffers.
+ * <p>
+ * This takes the chroma conversion out of the LibVLC decoder thread, where it is single-threaded, and spreads it over
+ * all of the cores instead - the frame is converted in parallel horizontal stripes, written directly into the buffer
+ * that backs the pixel buffer, so this replaces the copy of an RV32 frame rather than adding to it.
+ * <p>
+ * The conversion is BT.601 limited range, using fixed-point arithmetic and lookup tables for the chroma terms. Video
+ * is always opaque, so the premultiplied and non-premultiplied pixels are identical.
+ * <p>
+ * Only ever used by the native video thread.
+ */
+final class YuvConverter {
+
+    /**
+     * Number of rows of pixels in each stripe, this must be even so that no chroma row is shared between stripes.
+     */
+    private static final int STRIPE_HEIGHT = 16;
+
+    private static final int[] Y_TABLE = new int[256];
+
+    private static final int[] RV_TABLE = new int[256];
+
+    private static final int[] GU_TABLE = new int[256];
+
+    private static final int[] GV_TABLE = new int[256];
+
+    private static final int[] BU_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            // Scaled by 256, with rounding folded into the luma term
+            Y_TABLE[i] = 298 * (i - 16) + 128;
+            RV_TABLE[i] = 409 * (i - 128);
+            GU_TABLE[i] = -100 * (i - 128);
+            GV_TABLE[i] = -208 * (i - 128);
+            BU_TABLE[i] = 516 * (i - 128);
+        }
+    }
+
+    private final int width;
+
+    private final int height;
+
+    private final int lumaPitch;
+
+    private final int chromaPitch;
+
+    /**
+     * Index of the plane, and offset within each chroma sample, of the U and V values - and the size of each sample.
+     */
+    private final int uPlane;
+
+    private final int vPlane;
+
+    private final int uOffset;
+
+    private final int vOffset;
+
+    private final int chromaStep;
+
+    private final int stripes;
+
+    private final boolean parallel;
+
+    /**
+     * Create a converter.
+     *
+     * @param format YUV format of the source frames
+     * @param width width of each frame, in pixels
+     * @param height height of each frame, in pixels
+     * @param pitches pitch of each plane of the source frames, in bytes
+     * @param parallel <code>true</code> to convert the stripes in parallel; <code>false</code> to convert them on the
+     *                 calling thread
+     */
+    YuvConverter(DecodeFormat format, int width, int height, int[] pitches, boolean parallel) {
+        if (!format.isYuv()) {
+            throw new IllegalArgumentException("Not a YUV format: " + format);
+        }
+        this.width = width;
+        this.height = height;
+        this.lumaPitch = pitches[0];
+        this.chromaPitch = pitches[1];
+        if (format == DecodeFormat.NV12) {
+            uPlane = 1;
+            vPlane = 1;
+            uOffset = 0;
+            vOffset = 1;
+            chromaStep = 2;
+        } else {
+            uPlane = 1;
+            vPlane = 2;
+            uOffset = 0;
+            vOffset = 0;
+            chromaStep = 1;
+        }
+        this.stripes = (height + STRIPE_HEIGHT - 1) / STRIPE_HEIGHT;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Convert a frame.
+     *
+     * @param planes source frame planes
+     * @param target buffer for the converted frame, in BGRA format
+     */
+    void convert(ByteBuffer[] planes, ByteBuffer target) {
+        if (parallel) {
+            IntStream.range(0, stripes).parallel().forEach(stripe -> convertStripe(planes, target, stripe));
+        } else {
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                convertStripe(planes, target, stripe);
+            }
+        }
+    }
+
+    private void convertStripe(ByteBuffer[] planes, ByteBuffer target, int stripe) {
+        // Only absolute gets and puts are used, but each stripe needs its own byte order to write whole pixels
+        ByteBuffer dst = target.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer luma = planes[0];
+        ByteBuffer u = planes[uPlane];
+        ByteBuffer v = planes[vPlane];
+        int y0 = stripe * STRIPE_HEIGHT;
+        int y1 = Math.min(y0 + STRIPE_HEIGHT, height);
+        for (int y = y0; y < y1; y++) {
+            int lumaRow = y * lumaPitch;
+            int chromaRow = (y >> 1) * chromaPitch;
+            int out = y * width * 4;
+            for (int x = 0; x < width; x += 2) {
+                int chroma = chromaRow + (x >> 1) * chromaStep;
+                int uValue = u.get(chroma + uOffset) & 0xff;
+                int vValue = v.get(chroma + vOffset) & 0xff;
+                int r = RV_TABLE[vValue];
+                int g = GU_TABLE[uValue] + GV_TABLE[vValue];
+                int b = BU_TABLE[uValue];
+                dst.putInt(out, pixel(Y_TABLE[luma.get(lumaRow + x) & 0xff], r, g, b));
+                if (x + 1 < width) {
+                    dst.putInt(out + 4, pixel(Y_TABLE[luma.get(lumaRow + x + 1) & 0xff], r, g, b));
+                }
+                out += 8;
+            }
+        }
+    }
+
+    /**
+     * Combine the luma and chroma terms into a pixel.
+     *
+     * @return pixel, as a little-endian int so that the bytes are in BGRA order
+     */
+    private static int pixel(int luma, int r, int g, int b) {
+        return 0xff000000 | clamp(luma + r) << 16 | clamp(luma + g) << 8 | clamp(luma + b);
+    }
+
+    private static int clamp(int value) {
+        value >>= 8;
+        return value < 0 ? 0 : value > 255 ? 255 : value;
+    }
+}